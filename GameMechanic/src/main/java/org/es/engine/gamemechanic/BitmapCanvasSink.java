@@ -0,0 +1,45 @@
+package org.es.engine.gamemechanic;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+/**
+ * Draws the frames in an offscreen bitmap.<br />
+ * The bitmap and its canvas are reused for every frame: the sink does not allocate once created.
+ * Used to run the drawing code without a surface (see {@link HeadlessRunner}).
+ *
+ * @author Cyril Leroux
+ *         Created on 16/03/14.
+ */
+public class BitmapCanvasSink implements CanvasSink {
+
+    private final Bitmap mBitmap;
+    private final Canvas mCanvas;
+
+    /**
+     * @param width The width of the frames in pixels.
+     * @param height The height of the frames in pixels.
+     */
+    public BitmapCanvasSink(int width, int height) {
+        mBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(mBitmap);
+    }
+
+    @Override
+    public Canvas lockCanvas(Rect dirty) {
+        mCanvas.save();
+        if (dirty != null) {
+            mCanvas.clipRect(dirty);
+        }
+        return mCanvas;
+    }
+
+    @Override
+    public void unlockCanvasAndPost(Canvas canvas) {
+        mCanvas.restore();
+    }
+
+    /** @return The bitmap holding the last frame. */
+    public Bitmap getBitmap() { return mBitmap; }
+}
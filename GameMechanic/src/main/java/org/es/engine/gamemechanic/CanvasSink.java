@@ -0,0 +1,24 @@
+package org.es.engine.gamemechanic;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+/**
+ * Destination of the frames drawn by a {@link DrawingThread}.
+ *
+ * @author Cyril Leroux
+ *         Created on 09/03/14.
+ */
+public interface CanvasSink {
+
+    /**
+     * Start drawing a frame.
+     *
+     * @param dirty The area to draw. Null for the whole frame.
+     * @return The canvas on which to draw or null if the frame must not be drawn.
+     */
+    Canvas lockCanvas(Rect dirty);
+
+    /** Finish drawing a frame started with {@link #lockCanvas(Rect)}. */
+    void unlockCanvasAndPost(Canvas canvas);
+}
@@ -3,10 +3,19 @@ package org.es.engine.gamemechanic;
 import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Canvas;
-import android.util.Log;
+import android.graphics.Rect;
+import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
+import org.es.engine.gamemechanic.metrics.FrameMetrics;
+import org.es.engine.gamemechanic.metrics.FrameMetrics.Phase;
+import org.es.engine.gamemechanic.metrics.FrameMetricsSnapshot;
+import org.es.engine.gamemechanic.timing.FramePacer;
+import org.es.engine.gamemechanic.timing.FrameRateGovernor;
+import org.es.engine.gamemechanic.timing.GameClock;
+import org.es.engine.gamemechanic.timing.HybridFramePacer;
+import org.es.engine.gamemechanic.timing.RealGameClock;
+import org.es.engine.gamemechanic.timing.TickSource;
 
 /**
  * Parent class for drawing threads
@@ -18,66 +27,663 @@ public abstract class DrawingThread extends Thread {
 
     private static final String TAG = "DrawingThread";
 
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    /** Maximum number of user events waiting to be processed. */
+    private static final int EVENT_QUEUE_CAPACITY = 64;
+    /** Default maximum number of updates run without drawing when the loop is late. */
+    private static final int DEFAULT_MAX_FRAME_SKIP = 5;
+    /** Default ratio of the surface above which the dirty regions are ignored and the whole surface redrawn. */
+    private static final float DEFAULT_FULL_REDRAW_THRESHOLD = 0.5f;
+
     protected SurfaceHolder mSurfaceHolder = null;
     protected Resources mResources = null;
-    protected ConcurrentLinkedQueue<UserEvent> mEventQueue = new ConcurrentLinkedQueue<UserEvent>();
+    /** The destination of the frames. Draws on the surface unless the thread runs headless. */
+    private volatile CanvasSink mCanvasSink;
+    /** Guards the surface size. */
+    private final Object mSurfaceSizeLock = new Object();
+    /** Indicate whether the thread is stepped by a {@link HeadlessRunner} instead of being started. */
+    private boolean mHeadless = false;
+    protected final UserEventQueue mEventQueue = new UserEventQueue(EVENT_QUEUE_CAPACITY, UserEventQueue.OverflowPolicy.DROP_NEWEST);
+    /** Merges the move events received between two updates. */
+    private final MoveCoalescer mMoveCoalescer = new MoveCoalescer(mEventQueue);
+    /** Forwards the queued events to {@link #processEvent(UserEvent)}. */
+    private final UserEventQueue.Consumer mEventConsumer = new UserEventQueue.Consumer() {
+        @Override
+        public void processEvent(UserEvent event) {
+            DrawingThread.this.processEvent(event);
+        }
+    };
 
     /** Number of frame we wish to draw per second. */
     private int mFrameRate = 20;
-    /** The time a frame is suppose to stay on screen in milliseconds. */
-    private int mFrameDuration = 1000 / mFrameRate;
+    /** The time a frame is suppose to stay on screen in nanoseconds. */
+    private volatile long mFrameDuration = NANOS_PER_SECOND / mFrameRate;
+    /** Adapts the frame rate to the frame cost. Null if the frame rate is static. */
+    private FrameRateGovernor mGovernor = null;
+    /** The policy used to wait between two frames. */
+    private FramePacer mFramePacer = new HybridFramePacer();
+    /**
+     * Maximum number of extra updates run before the next draw when the loop is late.<br />
+     * Prevents the loop from spiraling when the device can't keep up.
+     */
+    private volatile int mMaxFrameSkip = DEFAULT_MAX_FRAME_SKIP;
+    /** Starts the frames of the thread which draws them. Null to use the frame pacers. */
+    private TickSource mTickSource = null;
+    /** Time of the tick that started the current frame of the loop in nanoseconds. 0 if there is none. */
+    private long mTickTime = 0;
     /** Indicate whether the thread is suppose to draw or not. */
-    private boolean mRunning = true;
+    private volatile boolean mRunning = true;
+    /** Indicate whether the loop is parked. Guarded by mPauseLock. */
+    private volatile boolean mPaused = false;
+    /** Indicate whether the game is paused: the loop only wakes up to process the user events. Guarded by mPauseLock. */
+    private volatile boolean mGamePaused = false;
+    private final Object mPauseLock = new Object();
+    /** The thread drawing the frames when the rendering is separated from the simulation. Null otherwise. */
+    private RenderThread mRenderThread = null;
+    /** Durations of the frame phases. */
+    private final FrameMetrics mFrameMetrics = new FrameMetrics();
+
+    /** Indicate whether only the dirty regions of the surface are redrawn. */
+    private volatile boolean mDirtyRegionEnabled = false;
+    /** Union of the areas to redraw in the next frame, in pixels. Guarded by itself. */
+    private final Rect mDirtyRegion = new Rect();
+    /** True if the whole surface must be redrawn in the next frame. Guarded by mDirtyRegion. */
+    private boolean mFullRedraw = true;
+    /** Area reported for the previous frame. What was drawn there must be erased. */
+    private final Rect mPreviousDirtyRegion = new Rect();
+    /** Area of the surface locked for the current frame. */
+    private final Rect mLockRegion = new Rect();
+    /** Ratio of the surface above which the whole surface is redrawn. */
+    private float mFullRedrawThreshold = DEFAULT_FULL_REDRAW_THRESHOLD;
+    private int mSurfaceWidth = 0;
+    private int mSurfaceHeight = 0;
+
+    /** The source of the game time. Paused with the loop. */
+    private volatile GameClock mClock = new RealGameClock();
+
+    /** Number of simulation ticks per second in fixed time step mode. 0 if the mode is disabled. */
+    private int mTickRate = 0;
+    /** The duration of a simulation tick in nanoseconds. */
+    private long mTickDuration = 0;
+    /** Elapsed time not yet consumed by the simulation in nanoseconds. */
+    private long mAccumulator = 0;
+    /** Game time of the previous loop iteration in nanoseconds. */
+    private long mPreviousTime = 0;
 
     public DrawingThread(SurfaceHolder surfaceHolder, Context context) {
         mSurfaceHolder = surfaceHolder;
         mResources = context.getResources();
+        mCanvasSink = (surfaceHolder == null) ? new NullCanvasSink() : new SurfaceCanvasSink(surfaceHolder);
     }
 
     @Override
     public void run() {
+        onLoopStarting();
 
-        while (mRunning) {
-            long start = System.currentTimeMillis();
+        mPreviousTime = mClock.nanoTime();
+        mAccumulator = 0;
+        mFramePacer.reset(System.nanoTime());
+
+        if (mTickSource != null) {
+            mTickSource.start();
+        }
+        if (mRenderThread != null) {
+            mRenderThread.start();
+        }
+
+        try {
+            loop();
+        } finally {
+            if (mTickSource != null) {
+                mTickSource.stop();
+            }
+            stopRenderThread();
+            onLoopStopped();
+        }
+    }
 
-            update();
-            draw();
+    /** The simulation loop. Also draws the frames if there is no render thread. */
+    private void loop() {
 
-            final long waitingTimeMillis = mFrameDuration - (System.currentTimeMillis() - start);
-            if (waitingTimeMillis > 0) {
+        while (mRunning) {
+            if (mPaused || (mGamePaused && mEventQueue.isEmpty())) {
                 try {
-                    sleep(waitingTimeMillis);
+                    // No tick is needed while parked.
+                    if (mTickSource != null) {
+                        mTickSource.stop();
+                    }
+                    awaitResume(true);
+                    if (mTickSource != null) {
+                        mTickSource.start();
+                    }
+                    // The game clock was paused too: only the pacing must restart.
+                    mFramePacer.reset(System.nanoTime());
+                    if (mRenderThread == null) {
+                        mTickTime = 0;
+                    }
                 } catch (InterruptedException e) {
                     e.printStackTrace();
                     mRunning = false;
                 }
+                continue;
+            }
+
+            if (mGamePaused) {
+                // The game time is stopped: run a single update for the pending events then park again.
+                tick();
+                onSimulationUpdated();
+                drawIfNoRenderThread(isFixedTimeStep() ? (float) mAccumulator / (float) mTickDuration : 1f);
+                continue;
+            }
+
+            final long frameStart = System.nanoTime();
+
+            if (isFixedTimeStep()) {
+                stepFixed();
             } else {
-                // We are running late !
-                Log.d(TAG, "Running late ! " + waitingTimeMillis);
+                tick();
+                onSimulationUpdated();
+                drawIfNoRenderThread(1f);
+            }
+
+            try {
+                final long sleepStart = System.nanoTime();
+                if (mRenderThread == null) {
+                    onFrameDrawn(sleepStart - frameStart);
+                }
+                final long delay = (mRenderThread == null) ? awaitNextFrame(mFramePacer) : mFramePacer.awaitNextFrame(mFrameDuration);
+                final long frameEnd = System.nanoTime();
+                mFrameMetrics.record(Phase.SLEEP, frameEnd - sleepStart);
+                mFrameMetrics.record(Phase.FRAME, frameEnd - frameStart);
+                if (delay > 0 && !isFixedTimeStep()) {
+                    // We are running late ! The fixed time step catches up through its accumulator.
+                    catchUp(delay);
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+                mRunning = false;
             }
         }
     }
 
+    /**
+     * Block the calling thread while the loop or the game is paused.
+     * No wake up occurs until the loop is resumed or stopped.<br />
+     * The queue is checked under the lock taken by {@link #addUserEvent(int, int, float, float)}:
+     * an event added while the thread parks can not be missed.
+     *
+     * @param wakeOnEvent True to wake up when a user event is added while the game is paused.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    private void awaitResume(boolean wakeOnEvent) throws InterruptedException {
+        synchronized (mPauseLock) {
+            while (mRunning && (mPaused || (mGamePaused && (!wakeOnEvent || mEventQueue.isEmpty())))) {
+                mPauseLock.wait();
+            }
+        }
+    }
+
+    /**
+     * Called by the thread which draws the frames.
+     *
+     * @param frameCost The time spent working on the frame in nanoseconds.
+     */
+    private void onFrameDrawn(long frameCost) {
+        if (mGovernor == null) {
+            return;
+        }
+        final int frameRate = mGovernor.onFrame(frameCost);
+        if (frameRate != mFrameRate) {
+            setFrameRate(frameRate);
+        }
+    }
+
+    /** Run a simulation tick and record its duration. */
+    private void tick() {
+        final long start = System.nanoTime();
+        update();
+        mFrameMetrics.record(Phase.UPDATE, System.nanoTime() - start);
+    }
+
+    /**
+     * Wait for the next frame of the thread which draws the frames.<br />
+     * Waits for the tick source if there is one, for the pacer otherwise.
+     *
+     * @param pacer The pacer of the calling thread.
+     * @return The delay of the frame in nanoseconds, 0 if on time.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    private long awaitNextFrame(FramePacer pacer) throws InterruptedException {
+        if (mTickSource == null) {
+            return pacer.awaitNextFrame(mFrameDuration);
+        }
+        final long previousTick = mTickTime;
+        mTickTime = mTickSource.awaitTick(mFrameDuration);
+        if (previousTick == 0) {
+            return 0;
+        }
+        return Math.max(0, mTickTime - previousTick - mFrameDuration);
+    }
+
+    /**
+     * @return The game time of the current frame in nanoseconds.
+     * When the loop follows a tick source, this is the game time at the tick instead of the current time.
+     */
+    private long getFrameTime() {
+        final long now = mClock.nanoTime();
+        if (mTickTime == 0 || mRenderThread != null) {
+            return now;
+        }
+        final long sinceTick = Math.max(0, System.nanoTime() - mTickTime);
+        return now - (long) (sinceTick * mClock.getScale());
+    }
+
+    /**
+     * Run the updates of the frames missed by a late loop, without drawing them.<br />
+     * At most {@link #setMaxFrameSkip(int)} updates are run: the rest is given up.
+     *
+     * @param delay The delay of the loop in nanoseconds.
+     */
+    private void catchUp(long delay) {
+        final long missedFrames = delay / mFrameDuration;
+        if (missedFrames == 0) {
+            // Less than a frame late: the pacer catches up on the next frame.
+            return;
+        }
+        final int skippedFrames = (int) Math.min(missedFrames, mMaxFrameSkip);
+        for (int i = 0; i < skippedFrames; i++) {
+            tick();
+        }
+        if (skippedFrames > 0) {
+            onSimulationUpdated();
+            mFrameMetrics.recordSkippedFrames(skippedFrames);
+        }
+        if (missedFrames > skippedFrames) {
+            mFrameMetrics.recordDroppedUpdates(missedFrames - skippedFrames);
+        }
+    }
+
+    /**
+     * Run as many simulation ticks as the elapsed game time allows then draw the frame.<br />
+     * At most {@link #setMaxFrameSkip(int)} extra ticks are run: the rest of the elapsed time is given up.
+     * The time left in the accumulator is passed to the drawing as an interpolation ratio.
+     */
+    private void stepFixed() {
+
+        final long now = Math.max(mPreviousTime, getFrameTime());
+        mAccumulator += now - mPreviousTime;
+        mPreviousTime = now;
+
+        final int maxTicks = 1 + mMaxFrameSkip;
+        int ticks = 0;
+        while (mAccumulator >= mTickDuration && ticks < maxTicks) {
+            tick();
+            mAccumulator -= mTickDuration;
+            ticks++;
+        }
+        if (ticks > 0) {
+            onSimulationUpdated();
+        }
+        if (ticks > 1) {
+            mFrameMetrics.recordSkippedFrames(ticks - 1);
+        }
+        if (mAccumulator >= mTickDuration) {
+            // The device can't keep up: give up the late ticks for the loop not to spiral.
+            mFrameMetrics.recordDroppedUpdates(mAccumulator / mTickDuration);
+            mAccumulator %= mTickDuration;
+        }
+
+        drawIfNoRenderThread((float) mAccumulator / (float) mTickDuration);
+    }
+
+    /**
+     * Called on the simulation thread after the simulation ticks of a frame.<br />
+     * Subclasses may copy the state of the simulation for the rendering (see {@link SplitDrawingThread}).
+     */
+    protected void onSimulationUpdated() { }
+
+    private void drawIfNoRenderThread(float interpolation) {
+        if (mRenderThread == null) {
+            draw(interpolation);
+        }
+    }
+
+    /** Stop the render thread and wait for it not to touch the Surface/Canvas again. */
+    private void stopRenderThread() {
+        if (mRenderThread == null) {
+            return;
+        }
+        mRenderThread.mRendering = false;
+        mRenderThread.interrupt();
+        try {
+            mRenderThread.join();
+        } catch (InterruptedException e) { /* swallow */ }
+    }
+
     public void setFrameRate(int framePerSecond) {
         mFrameRate = framePerSecond;
-        mFrameDuration = 1000 / mFrameRate;
+        mFrameDuration = NANOS_PER_SECOND / mFrameRate;
+    }
+
+    /**
+     * Set how many updates may be run without drawing when the loop is late.<br />
+     * The skipped frames and the updates given up beyond this limit are reported in the frame metrics.
+     *
+     * @param maxFrameSkip The maximum number of extra updates before the next draw. 0 to never catch up.
+     */
+    public void setMaxFrameSkip(int maxFrameSkip) {
+        mMaxFrameSkip = maxFrameSkip;
     }
 
+    /**
+     * Start the frames on the ticks of a source instead of the frame pacer,
+     * for instance to align them on the display vertical synchronization.<br />
+     * The source drives the render thread if there is one, the loop otherwise.
+     * Must be called before the thread is started.
+     *
+     * @param tickSource The tick source. Null to use the frame pacer.
+     */
+    public void setTickSource(TickSource tickSource) {
+        mTickSource = tickSource;
+    }
+
+    /** @return The source of the game time. Must be read at each use: the clock may be replaced. */
+    public GameClock getClock() { return mClock; }
+
+    /**
+     * Replace the source of the game time. Must be called before the thread is started.
+     *
+     * @param clock The new game clock. A {@link RealGameClock} by default.
+     */
+    public void setClock(GameClock clock) {
+        mClock = clock;
+    }
+
+    /** @return The game time simulated by one step of the loop in nanoseconds. */
+    public long getStepDuration() {
+        return isFixedTimeStep() ? mTickDuration : mFrameDuration;
+    }
+
+    /**
+     * Let a governor adapt the frame rate to the capacity of the device.<br />
+     * Must be called before the thread is started.
+     *
+     * @param governor The governor. Null to keep a static frame rate.
+     */
+    public void setFrameRateGovernor(FrameRateGovernor governor) {
+        mGovernor = governor;
+        if (governor != null) {
+            setFrameRate(governor.getFrameRate());
+        }
+    }
+
+    /**
+     * Set the policy used to wait between two frames.<br />
+     * Must be called before the thread is started.
+     *
+     * @param framePacer The frame pacer. {@link HybridFramePacer} is used by default.
+     */
+    public void setFramePacer(FramePacer framePacer) {
+        mFramePacer = framePacer;
+    }
+
+    /**
+     * Enable the fixed time step mode.<br />
+     * In this mode, {@link #update()} is called at a constant rate whatever the frame rate
+     * and the frames are drawn with an interpolation ratio (see {@link #doDraw(Canvas, float)}).
+     *
+     * @param ticksPerSecond The number of simulation ticks per second. 0 to disable the mode.
+     */
+    public void setTickRate(int ticksPerSecond) {
+        mTickRate = ticksPerSecond;
+        mTickDuration = (ticksPerSecond > 0) ? NANOS_PER_SECOND / ticksPerSecond : 0;
+    }
+
+    /** @return The duration of a simulation tick in nanoseconds. 0 if the fixed time step mode is disabled. */
+    protected long getTickDuration() { return mTickDuration; }
+
+    /** @return The number of simulation ticks per second. 0 if the fixed time step mode is disabled. */
+    public int getTickRate() { return mTickRate; }
+
+    /** @return True if the simulation runs at a constant rate independent from the frame rate. */
+    public boolean isFixedTimeStep() { return mTickRate > 0; }
+
+    /**
+     * Draw the frames on a dedicated render thread so that a slow canvas does not stall the simulation.<br />
+     * Only subclasses that never read the simulation while drawing may enable it (see {@link SplitDrawingThread}).
+     * Must be called before the thread is started.
+     *
+     * @param enabled True to draw on a render thread, false to draw on the simulation thread.
+     */
+    protected void setRenderThreadEnabled(boolean enabled) {
+        mRenderThread = enabled ? new RenderThread() : null;
+    }
+
+    /** @return True if the frames are drawn on a dedicated render thread. */
+    public boolean isRenderThreadEnabled() { return mRenderThread != null; }
+
+    /**
+     * Copy the statistics of the frame phases durations in the snapshot passed in parameter.<br />
+     * Can be called from any thread.
+     *
+     * @param snapshot The snapshot to fill. Reusing a snapshot avoids allocations.
+     */
+    public void snapshotFrameMetrics(FrameMetricsSnapshot snapshot) {
+        mFrameMetrics.snapshot(snapshot);
+    }
+
+    /** Remove all the recorded frame phases durations. */
+    public void resetFrameMetrics() {
+        mFrameMetrics.reset();
+    }
+
+    /** @return The recorder of the frame phases durations. */
+    protected FrameMetrics getFrameMetrics() { return mFrameMetrics; }
+
     /**
      * Used to signal the thread whether it should be running or not.
      *
      * @param running true to run, false to shut down
      */
     public void setRunning(boolean running) {
-        mRunning = running;
+        synchronized (mPauseLock) {
+            mRunning = running;
+            mPauseLock.notifyAll();
+        }
+        if (!running && mTickSource != null) {
+            // Release the thread waiting for a tick.
+            mTickSource.stop();
+        }
     }
 
+    /**
+     * Park the loop: no more updates nor draws until {@link #resumeLoop()} is called.<br />
+     * The parked threads wait on a condition and consume no CPU.
+     */
+    public void pauseLoop() {
+        synchronized (mPauseLock) {
+            if (!mPaused) {
+                mClock.pause();
+            }
+            mPaused = true;
+        }
+    }
+
+    /** Wake up the loop parked by {@link #pauseLoop()}. */
+    public void resumeLoop() {
+        synchronized (mPauseLock) {
+            if (mPaused) {
+                mClock.resume();
+            }
+            mPaused = false;
+            mPauseLock.notifyAll();
+        }
+        invalidateAll();
+    }
+
+    /** @return True if the loop is parked. */
+    public boolean isLoopPaused() { return mPaused; }
+
+    /**
+     * Park the loop while the game is paused. To be called on the simulation thread, usually in
+     * {@link #processEvent(UserEvent)}.<br />
+     * Unlike {@link #pauseLoop()}, the loop wakes up for each user event: a single update processes it
+     * then the loop parks again, until the game is resumed. Nothing is drawn by the render thread meanwhile.
+     * The game clock is left untouched.
+     *
+     * @param paused True to park the loop until the game is resumed, false to resume the game.
+     */
+    protected void setGamePaused(boolean paused) {
+        synchronized (mPauseLock) {
+            mGamePaused = paused;
+            mPauseLock.notifyAll();
+        }
+        if (!paused) {
+            invalidateAll();
+        }
+    }
+
+    /** @return True if the game is paused. See {@link #setGamePaused(boolean)}. */
+    public boolean isGamePaused() { return mGamePaused; }
+
     /* Callback invoked when the surface dimensions change. */
     public void setSurfaceSize(int width, int height) {
         // synchronized to make sure these all change atomically
-        synchronized (mSurfaceHolder) {
+        synchronized (mSurfaceSizeLock) {
+            mSurfaceWidth = width;
+            mSurfaceHeight = height;
             updateSurfaceSize(width, height);
         }
+        invalidateAll();
+    }
+
+    /** Called on the thread running the simulation before the first update. */
+    protected void onLoopStarting() { }
+
+    /** Called on the thread running the simulation after the loop ended. */
+    protected void onLoopStopped() { }
+
+    /**
+     * Set the destination of the frames. The surface of the holder passed to the constructor by default.
+     *
+     * @param sink The canvas sink.
+     */
+    public void setCanvasSink(CanvasSink sink) {
+        mCanvasSink = sink;
+        invalidateAll();
+    }
+
+    /** @return True if the thread is stepped by a {@link HeadlessRunner}. */
+    public boolean isHeadless() { return mHeadless; }
+
+    /**
+     * Prepare the thread to be stepped by a {@link HeadlessRunner} instead of being started.<br />
+     * The frames are drawn on the stepping thread: the render thread is disabled.
+     */
+    void startHeadless() {
+        mHeadless = true;
+        mRenderThread = null;
+        onLoopStarting();
+    }
+
+    /** Run one simulation tick then draw a frame, without waiting. */
+    void stepHeadless() {
+        tickHeadless();
+        drawHeadless();
+    }
+
+    /** Run one simulation tick, without drawing. */
+    void tickHeadless() {
+        tick();
+        onSimulationUpdated();
+    }
+
+    /** Draw a frame of the last simulation tick. */
+    void drawHeadless() {
+        draw(1f);
+    }
+
+    /** End a headless run. */
+    void stopHeadless() {
+        onLoopStopped();
+    }
+
+    /**
+     * Called before the canvas is locked, on the thread which draws the frames.<br />
+     * When the dirty regions are enabled, the areas that changed since the previous frame
+     * must be reported here with {@link #invalidate(Rect)}.
+     *
+     * @param interpolation Ratio between 0 (previous tick) and 1 (last tick) of the state to draw.
+     */
+    protected void onPrepareFrame(float interpolation) { }
+
+    /**
+     * Redraw only the areas of the surface reported with {@link #invalidate(Rect)} instead of the whole surface.<br />
+     * The canvas passed to {@link #doDraw(Canvas, float)} is then clipped to these areas.
+     */
+    public void setDirtyRegionEnabled(boolean enabled) {
+        mDirtyRegionEnabled = enabled;
+        invalidateAll();
+    }
+
+    /** @return True if only the dirty regions of the surface are redrawn. */
+    public boolean isDirtyRegionEnabled() { return mDirtyRegionEnabled; }
+
+    /**
+     * Set the size of the dirty regions above which the whole surface is redrawn.
+     *
+     * @param threshold Ratio of the surface area, between 0 and 1.
+     */
+    public void setFullRedrawThreshold(float threshold) {
+        mFullRedrawThreshold = threshold;
+    }
+
+    /**
+     * Report an area of the surface that must be redrawn in the next frame.
+     *
+     * @param dirty The area in pixels.
+     */
+    public void invalidate(Rect dirty) {
+        synchronized (mDirtyRegion) {
+            mDirtyRegion.union(dirty);
+        }
+    }
+
+    /** Report that the whole surface must be redrawn in the next frame. */
+    public void invalidateAll() {
+        synchronized (mDirtyRegion) {
+            mFullRedraw = true;
+        }
+    }
+
+    /**
+     * Merge the areas reported since the previous frame with the area of the previous frame.
+     *
+     * @return The area to lock, null to lock the whole surface. Empty if nothing changed.
+     */
+    private Rect prepareLockRegion() {
+        final boolean fullRedraw;
+        synchronized (mDirtyRegion) {
+            mLockRegion.set(mDirtyRegion);
+            fullRedraw = mFullRedraw;
+            mDirtyRegion.setEmpty();
+            mFullRedraw = false;
+        }
+
+        // The elements drawn in the previous frame may have moved: their previous area is dirty too.
+        final int left = mLockRegion.left;
+        final int top = mLockRegion.top;
+        final int right = mLockRegion.right;
+        final int bottom = mLockRegion.bottom;
+        mLockRegion.union(mPreviousDirtyRegion);
+        mPreviousDirtyRegion.set(left, top, right, bottom);
+
+        final long surfaceArea = (long) mSurfaceWidth * mSurfaceHeight;
+        final long dirtyArea = (long) mLockRegion.width() * mLockRegion.height();
+        if (fullRedraw || surfaceArea == 0 || dirtyArea > surfaceArea * mFullRedrawThreshold) {
+            return null;
+        }
+        return mLockRegion;
     }
 
     /**
@@ -89,32 +695,154 @@ public abstract class DrawingThread extends Thread {
     /** Check user inputs and update data. */
     protected abstract boolean update();
 
-    /** Processes the event to update the view. */
+    /**
+     * Processes the event to update the view.<br />
+     * The event is recycled after the call: it must not be kept.
+     */
     protected abstract void processEvent(UserEvent event);
 
-    /** Add a motionEvent that will be processed in {@link #update()}. */
+    /** Process the pending user events with {@link #processEvent(UserEvent)}. To be called in {@link #update()}. */
+    protected void processEvents() {
+        mMoveCoalescer.flush();
+        mEventQueue.drain(mEventConsumer);
+    }
+
+    /**
+     * Add a user event that will be processed in {@link #update()}.<br />
+     * The event is copied: prefer the other overloads that do not need an instance.
+     */
     public boolean addUserEvent(UserEvent event) {
-        return mEventQueue.add(event);
+        return addUserEvent(event.getKeyCode(), event.getAction(), event.getX(), event.getY());
+    }
+
+    /** Add a physic or tactile key event that will be processed in {@link #update()}. */
+    public boolean addUserEvent(int keyCode, int action) {
+        return addUserEvent(keyCode, action, 0f, 0f);
+    }
+
+    /** Add a move event that will be processed in {@link #update()}. */
+    public boolean addUserEvent(int action, float x, float y) {
+        return addUserEvent(UserEvent.KEYCODE_TOUCH, action, x, y);
+    }
+
+    /**
+     * Add a user event that will be processed in {@link #update()}.<br />
+     * Does not allocate. The event may be dropped if too many events are pending.
+     *
+     * @return True if the event was queued, false if it was dropped.
+     */
+    public boolean addUserEvent(int keyCode, int action, float x, float y) {
+        final boolean added = mMoveCoalescer.add(keyCode, action, x, y);
+        if (added && mGamePaused) {
+            // The loop is parked until the next event: wake it up.
+            synchronized (mPauseLock) {
+                mPauseLock.notifyAll();
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Add the positions of a {@link MotionEvent#ACTION_MOVE} event.<br />
+     * The moves of a pointer received before the next update are merged into one {@link UserEvent#ACTION_MOVE}
+     * event whose history holds the intermediate positions.
+     */
+    public void addMoveEvent(MotionEvent event) {
+        mMoveCoalescer.addMove(event);
+    }
+
+    /**
+     * Set what to do when a user event is added while too many events are pending.
+     *
+     * @param overflowPolicy The overflow policy. {@link UserEventQueue.OverflowPolicy#DROP_NEWEST} by default.
+     */
+    public void setEventOverflowPolicy(UserEventQueue.OverflowPolicy overflowPolicy) {
+        mEventQueue.setOverflowPolicy(overflowPolicy);
     }
 
-    /** Draw the new frame. */
-    private void draw() {
+    /**
+     * Draw the new frame.
+     *
+     * @param interpolation The interpolation ratio passed to {@link #doDraw(Canvas, float)}.
+     */
+    private void draw(float interpolation) {
+        onPrepareFrame(interpolation);
+
+        Rect lockRegion = null;
+        if (mDirtyRegionEnabled) {
+            lockRegion = prepareLockRegion();
+            if (lockRegion != null && lockRegion.isEmpty()) {
+                // Nothing changed since the previous frame.
+                return;
+            }
+        }
+
         Canvas canvas = null;
         try {
-            canvas = mSurfaceHolder.lockCanvas(null);
+            long start = System.nanoTime();
+            canvas = mCanvasSink.lockCanvas(lockRegion);
+            mFrameMetrics.record(Phase.LOCK_CANVAS, System.nanoTime() - start);
             if (canvas != null) {
-                doDraw(canvas);
+                start = System.nanoTime();
+                doDraw(canvas, interpolation);
+                mFrameMetrics.record(Phase.DRAW, System.nanoTime() - start);
             }
         } finally {
             if (canvas != null) {
-                mSurfaceHolder.unlockCanvasAndPost(canvas);
+                final long start = System.nanoTime();
+                mCanvasSink.unlockCanvasAndPost(canvas);
+                mFrameMetrics.record(Phase.UNLOCK_CANVAS, System.nanoTime() - start);
             }
         }
     }
 
     /**
      * Draws current state of the canvas.<br />
-     * Canvas null check is performed by the caller ({@link #draw()}).
+     * In fixed time step mode, the state to draw lies between the last two simulation ticks.
+     * Override this method to interpolate the positions of the moving elements.<br />
+     * The default implementation ignores the interpolation and calls {@link #doDraw(Canvas)}.
+     *
+     * @param canvas The canvas on which to draw.
+     * @param interpolation Ratio between 0 (previous tick) and 1 (last tick) of the state to draw.
+     */
+    protected void doDraw(Canvas canvas, float interpolation) {
+        doDraw(canvas);
+    }
+
+    /**
+     * Draws current state of the canvas.<br />
+     * Canvas null check is performed by the caller ({@link #draw(float)}).
      */
     protected abstract void doDraw(Canvas canvas);
+
+    /** Thread that draws the frames at the frame rate, independently from the simulation. */
+    private class RenderThread extends Thread {
+
+        private final FramePacer mRenderPacer = new HybridFramePacer();
+        private volatile boolean mRendering = true;
+
+        RenderThread() {
+            super("RenderThread");
+        }
+
+        @Override
+        public void run() {
+            mRenderPacer.reset(System.nanoTime());
+            while (mRendering && mRunning) {
+                try {
+                    if (mPaused || mGamePaused) {
+                        awaitResume(false);
+                        mRenderPacer.reset(System.nanoTime());
+                        continue;
+                    }
+                    final long frameStart = System.nanoTime();
+                    draw(1f);
+                    onFrameDrawn(System.nanoTime() - frameStart);
+                    awaitNextFrame(mRenderPacer);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -2,7 +2,6 @@ package org.es.engine.gamemechanic;
 
 import android.content.Context;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 
@@ -60,12 +59,15 @@ public abstract class DrawingView extends SurfaceView implements SurfaceHolder.C
 
     @Override
     public void onWindowFocusChanged(boolean hasWindowFocus) {
-        if (!hasWindowFocus) {
-            if (mThread != null) {
-                Log.d(TAG, "onWindowFocusChanged");
-                //TODO
-                //                thread.pause();
-            }
+        super.onWindowFocusChanged(hasWindowFocus);
+        if (mThread == null) {
+            return;
+        }
+        // The thread stays parked after the resume if the game itself is paused.
+        if (hasWindowFocus) {
+            mThread.resumeLoop();
+        } else {
+            mThread.pauseLoop();
         }
     }
 
@@ -0,0 +1,120 @@
+package org.es.engine.gamemechanic;
+
+import android.os.Debug;
+
+import org.es.engine.gamemechanic.timing.ManualGameClock;
+
+/**
+ * Runs the simulation of a {@link DrawingThread} without a surface and as fast as possible.<br />
+ * The thread is not started: the ticks are executed on the calling thread, without any wait between them.
+ * The frames are drawn after each tick in a {@link CanvasSink}, such as a {@link NullCanvasSink}
+ * or a {@link RecordingCanvasSink}.<br />
+ * The game time is given by a {@link ManualGameClock} advanced by one step before each tick:
+ * the runs are deterministic and independent from the speed of the device.<br />
+ * Used for fast-forward, balance runs and performance tests.<br />
+ * The games still depend on the Android framework (resources, canvas, bitmaps): the runs need a device or
+ * an emulator, typically from an instrumentation test. They do not run on a plain JVM.
+ *
+ * @author Cyril Leroux
+ *         Created on 09/03/14.
+ */
+public class HeadlessRunner {
+
+    private static final double NANOS_PER_SECOND = 1000000000.0;
+
+    private final DrawingThread mThread;
+    private final ManualGameClock mClock;
+
+    /**
+     * @param thread The thread to run. Must not have been started.
+     * @param sink The destination of the frames.
+     */
+    public HeadlessRunner(DrawingThread thread, CanvasSink sink) {
+        if (thread.isAlive()) {
+            throw new IllegalStateException("The drawing thread is already running.");
+        }
+        mThread = thread;
+        mClock = new ManualGameClock();
+        mThread.setClock(mClock);
+        mThread.setCanvasSink(sink);
+        mThread.startHeadless();
+    }
+
+    /** @return The game clock of the run. */
+    public ManualGameClock getClock() { return mClock; }
+
+    /**
+     * Run simulation ticks and draw a frame after each of them.
+     *
+     * @param tickCount The number of ticks to run.
+     * @return The statistics of the run.
+     */
+    public Result run(int tickCount) {
+        final long start = System.nanoTime();
+        final long stepDuration = mThread.getStepDuration();
+        for (int i = 0; i < tickCount; i++) {
+            mClock.advance(stepDuration);
+            mThread.stepHeadless();
+        }
+        return new Result(tickCount, System.nanoTime() - start);
+    }
+
+    /**
+     * Run simulation ticks and count the objects allocated while drawing the frames.<br />
+     * The allocations of the ticks are not counted.
+     *
+     * @param tickCount The number of ticks to run.
+     * @return The number of objects allocated on the calling thread by the draws.
+     */
+    public int countDrawAllocations(int tickCount) {
+        final long stepDuration = mThread.getStepDuration();
+        int allocationCount = 0;
+        Debug.startAllocCounting();
+        try {
+            for (int i = 0; i < tickCount; i++) {
+                mClock.advance(stepDuration);
+                mThread.tickHeadless();
+                Debug.resetThreadAllocCount();
+                mThread.drawHeadless();
+                allocationCount += Debug.getThreadAllocCount();
+            }
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        return allocationCount;
+    }
+
+    /** End the run: the thread releases its resources as if its loop stopped. */
+    public void stop() {
+        mThread.stopHeadless();
+    }
+
+    /** Statistics of a headless run. */
+    public static class Result {
+
+        private final int mTickCount;
+        private final long mElapsedTime;
+
+        Result(int tickCount, long elapsedTime) {
+            mTickCount = tickCount;
+            mElapsedTime = elapsedTime;
+        }
+
+        /** @return The number of ticks run. */
+        public int getTickCount() { return mTickCount; }
+
+        /** @return The duration of the run in nanoseconds. */
+        public long getElapsedTime() { return mElapsedTime; }
+
+        /** @return The number of ticks run per second. */
+        public double getTicksPerSecond() {
+            return (mElapsedTime == 0) ? 0 : mTickCount * NANOS_PER_SECOND / mElapsedTime;
+        }
+
+        @Override
+        public String toString() {
+            return mTickCount + " ticks in " + mElapsedTime / 1000000L + " ms ("
+                    + Math.round(getTicksPerSecond()) + " ticks/s)";
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.es.engine.gamemechanic;
+
+import android.view.MotionEvent;
+
+/**
+ * Merges the consecutive move events of a pointer into one {@link UserEvent#ACTION_MOVE} event.<br />
+ * The intermediate positions, including the {@link MotionEvent} historical samples,
+ * are kept in a primitive array and delivered with the merged event.<br />
+ * Pending moves are flushed into the event queue before any other event so that the order is preserved.
+ *
+ * @author Cyril Leroux
+ *         Created on 08/03/14.
+ */
+class MoveCoalescer {
+
+    /** Maximum number of pointers tracked at the same time. */
+    private static final int MAX_POINTERS = 4;
+    /** Maximum number of historical samples kept per pointer. The oldest samples are dropped first. */
+    static final int HISTORY_CAPACITY = 32;
+
+    private final UserEventQueue mQueue;
+
+    private final int[] mPointerIds = new int[MAX_POINTERS];
+    private final boolean[] mPending = new boolean[MAX_POINTERS];
+    private final float[] mX = new float[MAX_POINTERS];
+    private final float[] mY = new float[MAX_POINTERS];
+    /** Historical samples of each pointer: x0, y0, x1, y1... */
+    private final float[][] mHistory = new float[MAX_POINTERS][HISTORY_CAPACITY * 2];
+    private final int[] mHistorySize = new int[MAX_POINTERS];
+
+    MoveCoalescer(UserEventQueue queue) {
+        mQueue = queue;
+    }
+
+    /** Add a non-move event after flushing the pending moves. */
+    synchronized boolean add(int keyCode, int action, float x, float y) {
+        flushLocked();
+        return mQueue.offer(keyCode, action, x, y);
+    }
+
+    /** Merge the positions of all the pointers of a move event with the pending moves. */
+    synchronized void addMove(MotionEvent event) {
+        final int historySize = event.getHistorySize();
+        final int pointerCount = event.getPointerCount();
+        for (int p = 0; p < pointerCount; p++) {
+            final int slot = findSlot(event.getPointerId(p));
+            for (int h = 0; h < historySize; h++) {
+                addSample(slot, event.getHistoricalX(p, h), event.getHistoricalY(p, h));
+            }
+            addSample(slot, event.getX(p), event.getY(p));
+        }
+    }
+
+    /** Move the pending moves to the event queue. */
+    synchronized void flush() {
+        flushLocked();
+    }
+
+    private void flushLocked() {
+        for (int slot = 0; slot < MAX_POINTERS; slot++) {
+            if (!mPending[slot]) {
+                continue;
+            }
+            mQueue.offerMove(mPointerIds[slot], mX[slot], mY[slot], mHistory[slot], mHistorySize[slot]);
+            mPending[slot] = false;
+            mHistorySize[slot] = 0;
+        }
+    }
+
+    /** @return The slot of the pending move of the pointer. A slot is freed if needed. */
+    private int findSlot(int pointerId) {
+        int free = -1;
+        for (int slot = 0; slot < MAX_POINTERS; slot++) {
+            if (!mPending[slot]) {
+                if (free < 0) {
+                    free = slot;
+                }
+            } else if (mPointerIds[slot] == pointerId) {
+                return slot;
+            }
+        }
+        if (free < 0) {
+            flushLocked();
+            free = 0;
+        }
+        mPointerIds[free] = pointerId;
+        return free;
+    }
+
+    /** Set the position of the pointer. The previous position goes to the history. */
+    private void addSample(int slot, float x, float y) {
+        if (mPending[slot]) {
+            final float[] history = mHistory[slot];
+            int size = mHistorySize[slot];
+            if (size == HISTORY_CAPACITY) {
+                System.arraycopy(history, 2, history, 0, history.length - 2);
+                size--;
+            }
+            history[size * 2] = mX[slot];
+            history[size * 2 + 1] = mY[slot];
+            mHistorySize[slot] = size + 1;
+        }
+        mX[slot] = x;
+        mY[slot] = y;
+        mPending[slot] = true;
+    }
+}
@@ -0,0 +1,20 @@
+package org.es.engine.gamemechanic;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+/**
+ * Discards the frames: nothing is drawn.<br />
+ * Used to run the simulation without a surface (see {@link HeadlessRunner}).
+ *
+ * @author Cyril Leroux
+ *         Created on 09/03/14.
+ */
+public class NullCanvasSink implements CanvasSink {
+
+    @Override
+    public Canvas lockCanvas(Rect dirty) { return null; }
+
+    @Override
+    public void unlockCanvasAndPost(Canvas canvas) { }
+}
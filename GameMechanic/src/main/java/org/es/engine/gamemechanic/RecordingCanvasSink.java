@@ -0,0 +1,58 @@
+package org.es.engine.gamemechanic;
+
+import android.graphics.Canvas;
+import android.graphics.Picture;
+import android.graphics.Rect;
+
+/**
+ * Records the drawing commands of the frames in a {@link Picture} instead of drawing them.<br />
+ * Only the last frame is kept. Used to check the drawing code without a surface (see {@link HeadlessRunner}).
+ *
+ * @author Cyril Leroux
+ *         Created on 09/03/14.
+ */
+public class RecordingCanvasSink implements CanvasSink {
+
+    private final int mWidth;
+    private final int mHeight;
+    private Picture mRecording;
+    private Picture mLastFrame;
+    private int mFrameCount;
+
+    /**
+     * @param width The width of the recorded frames in pixels.
+     * @param height The height of the recorded frames in pixels.
+     */
+    public RecordingCanvasSink(int width, int height) {
+        mWidth = width;
+        mHeight = height;
+        mRecording = new Picture();
+        mLastFrame = new Picture();
+        mFrameCount = 0;
+    }
+
+    @Override
+    public Canvas lockCanvas(Rect dirty) {
+        final Canvas canvas = mRecording.beginRecording(mWidth, mHeight);
+        if (dirty != null) {
+            canvas.clipRect(dirty);
+        }
+        return canvas;
+    }
+
+    @Override
+    public void unlockCanvasAndPost(Canvas canvas) {
+        mRecording.endRecording();
+        // Swap the pictures to reuse them.
+        final Picture lastFrame = mRecording;
+        mRecording = mLastFrame;
+        mLastFrame = lastFrame;
+        mFrameCount++;
+    }
+
+    /** @return The last recorded frame. Empty if no frame has been recorded. */
+    public Picture getLastFrame() { return mLastFrame; }
+
+    /** @return The number of recorded frames. */
+    public int getFrameCount() { return mFrameCount; }
+}
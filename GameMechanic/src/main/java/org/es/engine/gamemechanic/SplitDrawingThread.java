@@ -0,0 +1,89 @@
+package org.es.engine.gamemechanic;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.view.SurfaceHolder;
+
+/**
+ * Parent class for drawing threads that separate the simulation from the rendering.<br />
+ * After each simulation step, the state needed to draw the frame is copied in a snapshot
+ * and published through a {@link TripleBuffer}. The frames are drawn from the most recent snapshot,
+ * either on the same thread or on a dedicated render thread (see {@link #setRenderThreadEnabled(boolean)}).
+ *
+ * @author Cyril Leroux
+ *         Created on 05/03/14.
+ */
+public abstract class SplitDrawingThread<Snapshot> extends DrawingThread {
+
+    private TripleBuffer<Snapshot> mSnapshots;
+    /** The snapshot of the frame being drawn. */
+    private Snapshot mFrameSnapshot;
+    /** The interpolation of the frame being drawn. */
+    private float mFrameInterpolation;
+
+    public SplitDrawingThread(SurfaceHolder surfaceHolder, Context context) {
+        super(surfaceHolder, context);
+    }
+
+    @Override
+    protected void onLoopStarting() {
+        super.onLoopStarting();
+        mSnapshots = new TripleBuffer<>(createSnapshot(), createSnapshot(), createSnapshot());
+    }
+
+    /** @return A new empty snapshot. Called three times when the thread starts. */
+    protected abstract Snapshot createSnapshot();
+
+    /**
+     * Copy the state of the simulation in the snapshot.<br />
+     * The snapshot may contain outdated data and must be entirely overwritten.
+     */
+    protected abstract void writeSnapshot(Snapshot snapshot);
+
+    /**
+     * Draws a snapshot of the simulation.<br />
+     * The snapshot must not be modified. The simulation must not be read: it may be running on another thread.
+     *
+     * @param canvas The canvas on which to draw.
+     * @param snapshot The most recent snapshot.
+     * @param interpolation Ratio between 0 (previous tick) and 1 (last tick) of the state to draw.
+     */
+    protected abstract void doDraw(Canvas canvas, Snapshot snapshot, float interpolation);
+
+    @Override
+    protected final void onSimulationUpdated() {
+        writeSnapshot(mSnapshots.getWriteBuffer());
+        mSnapshots.publish(System.nanoTime());
+    }
+
+    /**
+     * Called before the canvas is locked, with the snapshot about to be drawn.<br />
+     * When the dirty regions are enabled, the areas that changed must be reported here with {@link #invalidate(android.graphics.Rect)}.
+     *
+     * @param snapshot The snapshot to draw.
+     * @param interpolation Ratio between 0 (previous tick) and 1 (last tick) of the state to draw.
+     */
+    protected void onPrepareFrame(Snapshot snapshot, float interpolation) { }
+
+    @Override
+    protected final void onPrepareFrame(float interpolation) {
+        mFrameSnapshot = mSnapshots.acquire();
+        if (isRenderThreadEnabled() && isFixedTimeStep()) {
+            // The render thread does not know the simulation accumulator: use the snapshot age instead.
+            final float age = System.nanoTime() - mSnapshots.getAcquiredTimestamp();
+            interpolation = Math.min(1f, age / getTickDuration());
+        }
+        mFrameInterpolation = interpolation;
+        onPrepareFrame(mFrameSnapshot, interpolation);
+    }
+
+    @Override
+    protected final void doDraw(Canvas canvas, float interpolation) {
+        doDraw(canvas, mFrameSnapshot, mFrameInterpolation);
+    }
+
+    @Override
+    protected final void doDraw(Canvas canvas) {
+        doDraw(canvas, 1f);
+    }
+}
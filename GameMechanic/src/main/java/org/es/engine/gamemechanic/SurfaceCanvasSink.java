@@ -0,0 +1,30 @@
+package org.es.engine.gamemechanic;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.view.SurfaceHolder;
+
+/**
+ * Draws the frames on a surface. The default sink of the {@link DrawingThread}.
+ *
+ * @author Cyril Leroux
+ *         Created on 09/03/14.
+ */
+public class SurfaceCanvasSink implements CanvasSink {
+
+    private final SurfaceHolder mSurfaceHolder;
+
+    public SurfaceCanvasSink(SurfaceHolder surfaceHolder) {
+        mSurfaceHolder = surfaceHolder;
+    }
+
+    @Override
+    public Canvas lockCanvas(Rect dirty) {
+        return mSurfaceHolder.lockCanvas(dirty);
+    }
+
+    @Override
+    public void unlockCanvasAndPost(Canvas canvas) {
+        mSurfaceHolder.unlockCanvasAndPost(canvas);
+    }
+}
@@ -0,0 +1,71 @@
+package org.es.engine.gamemechanic;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer used to pass data from one writer thread to one reader thread.<br />
+ * The writer fills a buffer then publishes it. The reader always gets the most recently published buffer.
+ * None of them ever waits for the other one.
+ *
+ * @author Cyril Leroux
+ *         Created on 05/03/14.
+ */
+public class TripleBuffer<T> {
+
+    private static final int INDEX_MASK = 0x3;
+    /** Flag set when the shared buffer has been published and not read yet. */
+    private static final int FRESH = 0x4;
+
+    private final Object[] mBuffers;
+    /** Time of publication of each buffer in nanoseconds. */
+    private final long[] mTimestamps;
+    /** Index of the buffer exchanged between the writer and the reader, combined with the FRESH flag. */
+    private final AtomicInteger mShared;
+    /** Index of the buffer owned by the writer. */
+    private int mWriteIndex;
+    /** Index of the buffer owned by the reader. */
+    private int mReadIndex;
+
+    public TripleBuffer(T first, T second, T third) {
+        mBuffers = new Object[] { first, second, third };
+        mTimestamps = new long[3];
+        mReadIndex = 0;
+        mShared = new AtomicInteger(1);
+        mWriteIndex = 2;
+    }
+
+    /**
+     * Writer side.
+     *
+     * @return The buffer to fill before calling {@link #publish(long)}. Its content is outdated.
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() { return (T) mBuffers[mWriteIndex]; }
+
+    /**
+     * Writer side. Make the write buffer available to the reader.
+     *
+     * @param timestamp Time of the publication in nanoseconds.
+     */
+    public void publish(long timestamp) {
+        mTimestamps[mWriteIndex] = timestamp;
+        mWriteIndex = mShared.getAndSet(mWriteIndex | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Reader side. Acquire the most recently published buffer.<br />
+     * The buffer must not be modified and is valid until the next call.
+     *
+     * @return The most recent buffer. The same buffer as the previous call if nothing was published since.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((mShared.get() & FRESH) != 0) {
+            mReadIndex = mShared.getAndSet(mReadIndex) & INDEX_MASK;
+        }
+        return (T) mBuffers[mReadIndex];
+    }
+
+    /** Reader side. @return The time of publication of the last acquired buffer in nanoseconds. */
+    public long getAcquiredTimestamp() { return mTimestamps[mReadIndex]; }
+}
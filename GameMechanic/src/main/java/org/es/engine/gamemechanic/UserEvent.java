@@ -22,6 +22,10 @@ public class UserEvent {
     private int mAction;
     private float mX;
     private float mY;
+    private int mPointerId;
+    /** Historical positions of a move event: x0, y0, x1, y1... Reused when the event is recycled. */
+    private float[] mHistory;
+    private int mHistorySize;
 
     private UserEvent(int keyCode, int action, float x, float y) {
         mKeyCode = keyCode;
@@ -51,6 +55,22 @@ public class UserEvent {
         this(KEYCODE_TOUCH, action, x, y);
     }
 
+    /** Overwrite the event. Used to recycle the events of a {@link UserEventQueue}. */
+    void set(int keyCode, int action, int pointerId, float x, float y, float[] history, int historySize) {
+        mKeyCode = keyCode;
+        mAction = action;
+        mPointerId = pointerId;
+        mX = x;
+        mY = y;
+        mHistorySize = historySize;
+        if (historySize > 0) {
+            if (mHistory == null || mHistory.length < historySize * 2) {
+                mHistory = new float[MoveCoalescer.HISTORY_CAPACITY * 2];
+            }
+            System.arraycopy(history, 0, mHistory, 0, historySize * 2);
+        }
+    }
+
     public int getKeyCode() { return mKeyCode; }
 
     public int getAction() { return mAction; }
@@ -58,4 +78,16 @@ public class UserEvent {
     public float getX() { return mX; }
 
     public float getY() { return mY; }
+
+    /** @return The id of the pointer of a move event. */
+    public int getPointerId() { return mPointerId; }
+
+    /** @return The number of positions of a move event before the current one. */
+    public int getHistorySize() { return mHistorySize; }
+
+    /** @return The x coordinate of a historical position, from the oldest to the most recent. */
+    public float getHistoricalX(int pos) { return mHistory[pos * 2]; }
+
+    /** @return The y coordinate of a historical position, from the oldest to the most recent. */
+    public float getHistoricalY(int pos) { return mHistory[pos * 2 + 1]; }
 }
@@ -0,0 +1,175 @@
+package org.es.engine.gamemechanic;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of user events.<br />
+ * The events are stored in preallocated mutable slots: queuing and processing an event never allocate.
+ * Single producer, single consumer: designed for the UI thread to produce and the drawing thread to consume.
+ * Each slot carries a sequence number telling whether it is free, published or being processed.
+ *
+ * @author Cyril Leroux
+ *         Created on 07/03/14.
+ */
+public class UserEventQueue {
+
+    /** What to do when an event is added to a full queue. */
+    public static enum OverflowPolicy {
+        /** Drop the new event. */
+        DROP_NEWEST,
+        /** Drop the oldest pending event to make room for the new one, unless it is being processed. */
+        DROP_OLDEST
+    }
+
+    /** Interface of the objects processing the events. */
+    public interface Consumer {
+
+        /**
+         * Process an event.<br />
+         * The event is only valid during the call: it must not be kept.
+         */
+        void processEvent(UserEvent event);
+    }
+
+    private final UserEvent[] mSlots;
+    /** Sequence number of each slot. */
+    private final AtomicLongArray mSequences;
+    private final int mMask;
+    /** Position of the next event to add. Only written by the producer. */
+    private final AtomicLong mTail;
+    /** Position of the next event to process. */
+    private final AtomicLong mHead;
+    /** The number of events dropped because the queue was full. */
+    private final AtomicLong mDroppedCount;
+    private volatile OverflowPolicy mOverflowPolicy;
+
+    /**
+     * @param capacity The maximum number of pending events. Rounded up to a power of two.
+     * @param overflowPolicy What to do when an event is added to a full queue.
+     */
+    public UserEventQueue(int capacity, OverflowPolicy overflowPolicy) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        mSlots = new UserEvent[size];
+        mSequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            mSlots[i] = new UserEvent(UserEvent.KEYCODE_TOUCH, UserEvent.ACTION_UP);
+            mSequences.set(i, i);
+        }
+        mMask = size - 1;
+        mTail = new AtomicLong();
+        mHead = new AtomicLong();
+        mDroppedCount = new AtomicLong();
+        mOverflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Producer side. Add an event to the queue.
+     *
+     * @return True if the event was added, false if it was dropped.
+     */
+    public boolean offer(int keyCode, int action, float x, float y) {
+        return offer(keyCode, action, 0, x, y, null, 0);
+    }
+
+    /**
+     * Producer side. Add a move event to the queue.
+     *
+     * @param pointerId The id of the moving pointer.
+     * @param history The previous positions of the pointer: x0, y0, x1, y1...
+     * @param historySize The number of previous positions.
+     * @return True if the event was added, false if it was dropped.
+     */
+    public boolean offerMove(int pointerId, float x, float y, float[] history, int historySize) {
+        return offer(UserEvent.KEYCODE_TOUCH, UserEvent.ACTION_MOVE, pointerId, x, y, history, historySize);
+    }
+
+    private boolean offer(int keyCode, int action, int pointerId, float x, float y, float[] history, int historySize) {
+        final long position = mTail.get();
+        final int index = (int) (position & mMask);
+
+        if (mSequences.get(index) != position) {
+            // The queue is full: the slot holds the oldest event.
+            mDroppedCount.incrementAndGet();
+            if (mOverflowPolicy == OverflowPolicy.DROP_NEWEST || !replaceOldest(position)) {
+                return false;
+            }
+        }
+        mSlots[index].set(keyCode, action, pointerId, x, y, history, historySize);
+        mSequences.set(index, position + 1);
+        mTail.set(position + 1);
+        return true;
+    }
+
+    /**
+     * Take back the slot of the oldest event, which is the slot of the new event when the queue is full.<br />
+     * Fails if the consumer claimed the oldest event: the event is being processed and its slot is not free yet.
+     *
+     * @param position The position of the new event.
+     * @return True if the oldest event was dropped and its slot can be written.
+     */
+    private boolean replaceOldest(long position) {
+        final long oldest = position - mSlots.length;
+        // The consumer claims the events with the same operation: only one of both can win.
+        return mHead.compareAndSet(oldest, oldest + 1);
+    }
+
+    /**
+     * Consumer side. Process the events pending at the time of the call, in order.
+     *
+     * @param consumer The object that processes the events.
+     * @return The number of processed events.
+     */
+    public int drain(Consumer consumer) {
+        final long end = mTail.get();
+        int count = 0;
+        long position;
+        while (mHead.get() < end && (position = claim()) >= 0) {
+            try {
+                consumer.processEvent(mSlots[(int) (position & mMask)]);
+            } finally {
+                release(position);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /** Take the ownership of the oldest published event. @return Its position or -1 if there is none. */
+    private long claim() {
+        while (true) {
+            final long position = mHead.get();
+            final long sequence = mSequences.get((int) (position & mMask));
+
+            if (sequence == position + 1) {
+                // The slot is published.
+                if (mHead.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+
+            } else if (sequence < position + 1) {
+                // The queue is empty.
+                return -1;
+            }
+        }
+    }
+
+    /** Give back a claimed slot to the producer. */
+    private void release(long position) {
+        mSequences.set((int) (position & mMask), position + mSlots.length);
+    }
+
+    /** @return True if no event is pending. */
+    public boolean isEmpty() { return mHead.get() >= mTail.get(); }
+
+    /** @return The maximum number of pending events. */
+    public int getCapacity() { return mSlots.length; }
+
+    /** @return The number of events dropped because the queue was full. */
+    public long getDroppedCount() { return mDroppedCount.get(); }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) { mOverflowPolicy = overflowPolicy; }
+}
@@ -0,0 +1,97 @@
+package org.es.engine.gamemechanic.metrics;
+
+/**
+ * Records the duration of each phase of the frames drawn by a drawing thread.<br />
+ * Durations are expressed in nanoseconds.
+ * Recording is allocation-free and can be read from another thread through {@link #snapshot(FrameMetricsSnapshot)}.
+ *
+ * @author Cyril Leroux
+ *         Created on 04/03/14.
+ */
+public class FrameMetrics {
+
+    /** The phases of a frame. */
+    public static enum Phase {
+        /** Check user inputs and update data. Recorded once per simulation tick. */
+        UPDATE,
+        /** Wait for the canvas of the surface. */
+        LOCK_CANVAS,
+        /** Draw the frame on the canvas. */
+        DRAW,
+        /** Post the canvas to the surface. */
+        UNLOCK_CANVAS,
+        /** Wait for the next frame. */
+        SLEEP,
+        /** The whole frame, from the beginning of the updates to the end of the wait. */
+        FRAME
+    }
+
+    /** Bucket width of the histograms: 0.1 ms. */
+    private static final long BUCKET_WIDTH = 100000L;
+    /** Bucket count of the histograms: up to 100 ms. */
+    private static final int BUCKET_COUNT = 1000;
+    /** The phases, cached since {@link Phase#values()} returns a new array at each call. */
+    private static final Phase[] PHASES = Phase.values();
+
+    private final Histogram[] mHistograms;
+    /** Number of frames not drawn because the simulation was catching up. */
+    private long mSkippedFrames;
+    /** Number of simulation updates given up because the catch-up limit was reached. */
+    private long mDroppedUpdates;
+
+    public FrameMetrics() {
+        mHistograms = new Histogram[PHASES.length];
+        for (Phase phase : PHASES) {
+            mHistograms[phase.ordinal()] = new Histogram(BUCKET_WIDTH, BUCKET_COUNT);
+        }
+    }
+
+    /**
+     * Record the duration of a frame phase.
+     *
+     * @param phase The frame phase.
+     * @param duration The duration of the phase in nanoseconds.
+     */
+    public synchronized void record(Phase phase, long duration) {
+        mHistograms[phase.ordinal()].record(duration);
+    }
+
+    /**
+     * Record the frames not drawn because the simulation was catching up.
+     *
+     * @param count The number of updates run without drawing the frame in between.
+     */
+    public synchronized void recordSkippedFrames(int count) {
+        mSkippedFrames += count;
+    }
+
+    /**
+     * Record the simulation updates given up because the catch-up limit was reached.
+     *
+     * @param count The number of updates.
+     */
+    public synchronized void recordDroppedUpdates(long count) {
+        mDroppedUpdates += count;
+    }
+
+    /** Remove all the recorded durations and counts. */
+    public synchronized void reset() {
+        for (Histogram histogram : mHistograms) {
+            histogram.reset();
+        }
+        mSkippedFrames = 0;
+        mDroppedUpdates = 0;
+    }
+
+    /**
+     * Copy the current statistics in the snapshot passed in parameter.
+     *
+     * @param snapshot The snapshot to fill. Reusing a snapshot avoids allocations.
+     */
+    public synchronized void snapshot(FrameMetricsSnapshot snapshot) {
+        for (Phase phase : PHASES) {
+            snapshot.set(phase, mHistograms[phase.ordinal()]);
+        }
+        snapshot.setCatchUp(mSkippedFrames, mDroppedUpdates);
+    }
+}
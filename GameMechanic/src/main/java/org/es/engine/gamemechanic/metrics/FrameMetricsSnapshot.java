@@ -0,0 +1,92 @@
+package org.es.engine.gamemechanic.metrics;
+
+import org.es.engine.gamemechanic.metrics.FrameMetrics.Phase;
+
+/**
+ * Statistics of the frame phases at a given time.<br />
+ * Durations are expressed in nanoseconds.
+ *
+ * @author Cyril Leroux
+ *         Created on 04/03/14.
+ */
+public class FrameMetricsSnapshot {
+
+    private final long[] mCount;
+    private final long[] mMean;
+    private final long[] mP50;
+    private final long[] mP95;
+    private final long[] mP99;
+    private final long[] mMax;
+    private long mSkippedFrames;
+    private long mDroppedUpdates;
+
+    public FrameMetricsSnapshot() {
+        final int phaseCount = Phase.values().length;
+        mCount = new long[phaseCount];
+        mMean = new long[phaseCount];
+        mP50 = new long[phaseCount];
+        mP95 = new long[phaseCount];
+        mP99 = new long[phaseCount];
+        mMax = new long[phaseCount];
+    }
+
+    void set(Phase phase, Histogram histogram) {
+        final int id = phase.ordinal();
+        mCount[id] = histogram.getCount();
+        mMean[id] = histogram.getMean();
+        mP50[id] = histogram.percentile(0.50f);
+        mP95[id] = histogram.percentile(0.95f);
+        mP99[id] = histogram.percentile(0.99f);
+        mMax[id] = histogram.getMax();
+    }
+
+    void setCatchUp(long skippedFrames, long droppedUpdates) {
+        mSkippedFrames = skippedFrames;
+        mDroppedUpdates = droppedUpdates;
+    }
+
+    /** @return The number of frames not drawn because the simulation was catching up. */
+    public long getSkippedFrames() { return mSkippedFrames; }
+
+    /** @return The number of simulation updates given up because the catch-up limit was reached. */
+    public long getDroppedUpdates() { return mDroppedUpdates; }
+
+    /** @return The number of recorded durations for the phase. */
+    public long getCount(Phase phase) { return mCount[phase.ordinal()]; }
+
+    /** @return The mean duration of the phase. */
+    public long getMean(Phase phase) { return mMean[phase.ordinal()]; }
+
+    /** @return The median duration of the phase. */
+    public long getP50(Phase phase) { return mP50[phase.ordinal()]; }
+
+    /** @return The 95th percentile of the phase durations. */
+    public long getP95(Phase phase) { return mP95[phase.ordinal()]; }
+
+    /** @return The 99th percentile of the phase durations. */
+    public long getP99(Phase phase) { return mP99[phase.ordinal()]; }
+
+    /** @return The longest duration of the phase. */
+    public long getMax(Phase phase) { return mMax[phase.ordinal()]; }
+
+    /** @return A table of the statistics in milliseconds, one line per phase. */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("phase count mean p50 p95 p99 max (ms)");
+        for (Phase phase : Phase.values()) {
+            final int id = phase.ordinal();
+            builder.append('\n').append(phase.name())
+                    .append(' ').append(mCount[id])
+                    .append(' ').append(toMillis(mMean[id]))
+                    .append(' ').append(toMillis(mP50[id]))
+                    .append(' ').append(toMillis(mP95[id]))
+                    .append(' ').append(toMillis(mP99[id]))
+                    .append(' ').append(toMillis(mMax[id]));
+        }
+        builder.append("\nskipped frames ").append(mSkippedFrames)
+                .append(", dropped updates ").append(mDroppedUpdates);
+        return builder.toString();
+    }
+
+    private static float toMillis(long nanos) { return nanos / 1000000f; }
+}
@@ -0,0 +1,87 @@
+package org.es.engine.gamemechanic.metrics;
+
+/**
+ * A fixed-size histogram of durations.<br />
+ * Values are stored in linear buckets. Values beyond the last bucket are counted in an overflow bucket.
+ * Recording a value never allocates.
+ *
+ * @author Cyril Leroux
+ *         Created on 04/03/14.
+ */
+public class Histogram {
+
+    /** The width of a bucket. */
+    private final long mBucketWidth;
+    /** The number of values in each bucket. The last bucket counts the overflowing values. */
+    private final int[] mBuckets;
+
+    private long mCount;
+    private long mTotal;
+    private long mMax;
+
+    /**
+     * @param bucketWidth The width of a bucket.
+     * @param bucketCount The number of buckets. Values greater than bucketWidth * bucketCount overflow.
+     */
+    public Histogram(long bucketWidth, int bucketCount) {
+        mBucketWidth = bucketWidth;
+        mBuckets = new int[bucketCount + 1];
+    }
+
+    /** Add a value to the histogram. Negative values are recorded as 0. */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        final int bucketId = (int) Math.min(value / mBucketWidth, mBuckets.length - 1);
+        mBuckets[bucketId]++;
+        mCount++;
+        mTotal += value;
+        if (value > mMax) {
+            mMax = value;
+        }
+    }
+
+    /** Remove all the recorded values. */
+    public void reset() {
+        for (int i = 0; i < mBuckets.length; i++) {
+            mBuckets[i] = 0;
+        }
+        mCount = 0;
+        mTotal = 0;
+        mMax = 0;
+    }
+
+    /**
+     * Get the value under which a given ratio of the recorded values fall.<br />
+     * The result is the upper bound of the matching bucket, capped by the max value.
+     *
+     * @param ratio The ratio between 0 and 1 (0.95 for the 95th percentile).
+     * @return The percentile value or 0 if the histogram is empty.
+     */
+    public long percentile(float ratio) {
+        if (mCount == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(ratio * mCount));
+        long cumulatedCount = 0;
+        // The overflow bucket is not looked up: its values are only known to be lower than max.
+        for (int i = 0; i < mBuckets.length - 1; i++) {
+            cumulatedCount += mBuckets[i];
+            if (cumulatedCount >= rank) {
+                return Math.min((i + 1) * mBucketWidth, mMax);
+            }
+        }
+        return mMax;
+    }
+
+    /** @return The number of recorded values. */
+    public long getCount() { return mCount; }
+
+    /** @return The mean of the recorded values or 0 if the histogram is empty. */
+    public long getMean() { return (mCount == 0) ? 0 : mTotal / mCount; }
+
+    /** @return The greatest recorded value. */
+    public long getMax() { return mMax; }
+}
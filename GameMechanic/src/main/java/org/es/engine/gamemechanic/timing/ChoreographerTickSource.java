@@ -0,0 +1,90 @@
+package org.es.engine.gamemechanic.timing;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.Choreographer;
+
+/**
+ * Tick source following the display vertical synchronization.<br />
+ * The {@link Choreographer} frame callbacks are received on a dedicated looper thread.<br />
+ * Requires API 16: check {@link Build.VERSION#SDK_INT} before creating an instance.
+ * The callback is a nested class so that this class can be loaded, but not used, on older devices.
+ *
+ * @author Cyril Leroux
+ *         Created on 11/03/14.
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+public class ChoreographerTickSource implements TickSource {
+
+    private final VsyncCallback mCallback = new VsyncCallback();
+    private HandlerThread mLooperThread;
+    /** Time of the last vsync. Guarded by this. */
+    private long mLastVsync = -1;
+    /** Time of the vsync that started the last frame. Guarded by this. */
+    private long mLastFrame = -1;
+    private volatile boolean mStopped = true;
+
+    @Override
+    public synchronized void start() {
+        if (!mStopped) {
+            return;
+        }
+        mStopped = false;
+        mLooperThread = new HandlerThread("VsyncThread");
+        mLooperThread.start();
+        new Handler(mLooperThread.getLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                // The Choreographer instance is bound to the looper of the calling thread.
+                Choreographer.getInstance().postFrameCallback(mCallback);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (mStopped) {
+            return;
+        }
+        mStopped = true;
+        mLooperThread.quit();
+        mLooperThread = null;
+        notifyAll();
+    }
+
+    /** Called on the looper thread at each vsync. */
+    private void onVsync(long frameTimeNanos) {
+        if (mStopped) {
+            return;
+        }
+        synchronized (this) {
+            mLastVsync = frameTimeNanos;
+            notifyAll();
+        }
+        Choreographer.getInstance().postFrameCallback(mCallback);
+    }
+
+    /**
+     * The vsyncs arriving less than three quarters of a frame after the previous frame are skipped.
+     * The frame rate is then rounded to a divisor of the display refresh rate.
+     */
+    @Override
+    public synchronized long awaitTick(long frameDuration) throws InterruptedException {
+        final long earliest = mLastFrame + frameDuration - frameDuration / 4;
+        while (!mStopped && (mLastVsync == mLastFrame || mLastVsync < earliest)) {
+            wait();
+        }
+        mLastFrame = mLastVsync;
+        return mLastFrame;
+    }
+
+    /** Forwards the vsyncs to the tick source. */
+    private class VsyncCallback implements Choreographer.FrameCallback {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            onVsync(frameTimeNanos);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.es.engine.gamemechanic.timing;
+
+/**
+ * A frame pacer decides how the drawing thread waits between two frames.<br />
+ * Deadlines are absolute and expressed in nanoseconds ({@link System#nanoTime()}) so that
+ * the pacer can compensate the drift of a frame on the following ones.
+ *
+ * @author Cyril Leroux
+ *         Created on 03/03/14.
+ */
+public interface FramePacer {
+
+    /**
+     * Reset the pacer. Called when the loop starts or after a long interruption.
+     *
+     * @param now The current time in nanoseconds.
+     */
+    void reset(long now);
+
+    /**
+     * Block the calling thread until the beginning of the next frame.
+     *
+     * @param frameDuration The time a frame is supposed to stay on screen in nanoseconds.
+     * @return The delay in nanoseconds if the frame deadline has already passed, 0 otherwise.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    long awaitNextFrame(long frameDuration) throws InterruptedException;
+}
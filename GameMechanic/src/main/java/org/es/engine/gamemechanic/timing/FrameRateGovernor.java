@@ -0,0 +1,146 @@
+package org.es.engine.gamemechanic.timing;
+
+import java.util.Arrays;
+
+/**
+ * Adapts the frame rate of a drawing thread to the capacity of the device.<br />
+ * The governor measures the cost of the frames (the time spent working, waits excluded)
+ * over windows of frames and steps the frame rate between predefined levels:
+ * <ul>
+ * <li>Down as soon as a window exceeds the frame budget of the current rate.</li>
+ * <li>Up when the cost of several consecutive windows fits comfortably in the budget of the higher rate.</li>
+ * </ul>
+ * Each step up followed by a step down doubles the number of windows needed to step up again,
+ * so that the governor settles on the highest sustainable rate instead of oscillating.
+ *
+ * @author Cyril Leroux
+ *         Created on 06/03/14.
+ */
+public class FrameRateGovernor {
+
+    /** Interface to be notified of the governor decisions. */
+    public interface Listener {
+
+        /**
+         * Called when the governor changes the frame rate.
+         *
+         * @param previousRate The previous frame rate.
+         * @param newRate The new frame rate.
+         * @param frameCost The average frame cost that triggered the change in nanoseconds.
+         */
+        void onFrameRateChanged(int previousRate, int newRate, long frameCost);
+    }
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    /** Default number of frames in a measure window. */
+    public static final int DEFAULT_WINDOW_SIZE = 60;
+    /** Ratio of the frame budget above which the current rate is not sustainable. */
+    private static final float STEP_DOWN_LOAD = 0.9f;
+    /** Ratio of the frame budget of the higher rate under which it is expected to be sustainable. */
+    private static final float STEP_UP_LOAD = 0.6f;
+    /** Initial number of consecutive good windows needed to step up. */
+    private static final int STEP_UP_WINDOWS = 3;
+    /** Maximum number of consecutive good windows needed to step up. */
+    private static final int MAX_STEP_UP_WINDOWS = 48;
+
+    /** The frame rate levels in ascending order. */
+    private final int[] mRates;
+    private final int mWindowSize;
+    private Listener mListener;
+
+    /** Index of the current frame rate. */
+    private int mLevel;
+    /** True if the last change was a step up. */
+    private boolean mSteppedUp;
+    /** Current number of consecutive good windows needed to step up. */
+    private int mStepUpWindows;
+    /** Number of consecutive good windows measured at the current level. */
+    private int mGoodWindows;
+
+    private int mFrameCount;
+    private long mCostSum;
+
+    /**
+     * Create a governor that starts at the highest rate.
+     *
+     * @param rates The frame rate levels, 30, 45 and 60 for instance.
+     */
+    public FrameRateGovernor(int[] rates) {
+        this(rates, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Create a governor that starts at the highest rate.
+     *
+     * @param rates The frame rate levels, 30, 45 and 60 for instance.
+     * @param windowSize The number of frames in a measure window.
+     */
+    public FrameRateGovernor(int[] rates, int windowSize) {
+        if (rates.length == 0) {
+            throw new IllegalArgumentException("At least one frame rate is required.");
+        }
+        mRates = Arrays.copyOf(rates, rates.length);
+        Arrays.sort(mRates);
+        mWindowSize = windowSize;
+        mLevel = mRates.length - 1;
+        mStepUpWindows = STEP_UP_WINDOWS;
+    }
+
+    public void setListener(Listener listener) { mListener = listener; }
+
+    /** @return The frame rate currently chosen by the governor. */
+    public int getFrameRate() { return mRates[mLevel]; }
+
+    /**
+     * Record the cost of a frame. Must always be called from the same thread.
+     *
+     * @param frameCost The time spent working on the frame in nanoseconds.
+     * @return The frame rate to apply.
+     */
+    public int onFrame(long frameCost) {
+        mCostSum += frameCost;
+        if (++mFrameCount >= mWindowSize) {
+            final long averageCost = mCostSum / mFrameCount;
+            mCostSum = 0;
+            mFrameCount = 0;
+            evaluate(averageCost);
+        }
+        return mRates[mLevel];
+    }
+
+    private void evaluate(long averageCost) {
+
+        final long budget = NANOS_PER_SECOND / mRates[mLevel];
+        if (mLevel > 0 && averageCost > budget * STEP_DOWN_LOAD) {
+            if (mSteppedUp) {
+                // The last step up was a mistake: be more careful next time.
+                mStepUpWindows = Math.min(mStepUpWindows * 2, MAX_STEP_UP_WINDOWS);
+            }
+            changeLevel(mLevel - 1, averageCost);
+            mSteppedUp = false;
+            return;
+        }
+
+        if (mLevel == mRates.length - 1) {
+            return;
+        }
+
+        final long higherBudget = NANOS_PER_SECOND / mRates[mLevel + 1];
+        if (averageCost >= higherBudget * STEP_UP_LOAD) {
+            mGoodWindows = 0;
+
+        } else if (++mGoodWindows >= mStepUpWindows) {
+            changeLevel(mLevel + 1, averageCost);
+            mSteppedUp = true;
+        }
+    }
+
+    private void changeLevel(int level, long averageCost) {
+        final int previousRate = mRates[mLevel];
+        mLevel = level;
+        mGoodWindows = 0;
+        if (mListener != null) {
+            mListener.onFrameRateChanged(previousRate, mRates[mLevel], averageCost);
+        }
+    }
+}
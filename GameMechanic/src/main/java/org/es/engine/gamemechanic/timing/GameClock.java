@@ -0,0 +1,55 @@
+package org.es.engine.gamemechanic.timing;
+
+/**
+ * Source of the game time.<br />
+ * All the time-dependent code of a game (animations, cooldowns, speeds, ...) must read the time from the clock
+ * of its {@link org.es.engine.gamemechanic.DrawingThread} instead of the system.
+ * The game time does not elapse while the clock is paused.<br />
+ * Pauses are counted: the clock resumes when {@link #resume()} has been called as many times as {@link #pause()}.
+ *
+ * @author Cyril Leroux
+ *         Created on 10/03/14.
+ */
+public abstract class GameClock {
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private int mPauseCount = 0;
+
+    /** @return The game time in nanoseconds. Only meaningful to compute durations. */
+    public abstract long nanoTime();
+
+    /** @return The game time in milliseconds. Only meaningful to compute durations. */
+    public long currentTimeMillis() {
+        return nanoTime() / NANOS_PER_MILLI;
+    }
+
+    /** @return How fast the game time elapses compared to the real time. */
+    public float getScale() { return 1f; }
+
+    /** Stop the game time until the matching call to {@link #resume()}. */
+    public synchronized void pause() {
+        if (mPauseCount++ == 0) {
+            onPause();
+        }
+    }
+
+    /** Cancel a call to {@link #pause()}. The game time elapses again when all the pauses are cancelled. */
+    public synchronized void resume() {
+        if (mPauseCount == 0) {
+            return;
+        }
+        if (--mPauseCount == 0) {
+            onResume();
+        }
+    }
+
+    /** @return True if the game time is stopped. */
+    public synchronized boolean isPaused() { return mPauseCount > 0; }
+
+    /** Called with the lock held when the game time stops. */
+    protected abstract void onPause();
+
+    /** Called with the lock held when the game time elapses again. */
+    protected abstract void onResume();
+}
@@ -0,0 +1,78 @@
+package org.es.engine.gamemechanic.timing;
+
+/**
+ * Frame pacer that sleeps for most of the waiting time then yields (or spins)
+ * until the deadline for the last slice.<br />
+ * The length of the last slice adapts to the sleep overshoot measured on the previous frames.
+ * The deadlines are absolute so the lateness of a frame is deducted from the next one.
+ *
+ * @author Cyril Leroux
+ *         Created on 03/03/14.
+ */
+public class HybridFramePacer implements FramePacer {
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+    /** Default minimum time before the deadline under which the pacer stops sleeping. */
+    public static final long DEFAULT_SPIN_THRESHOLD = 2 * NANOS_PER_MILLI;
+
+    /** Minimum time before the deadline under which the pacer stops sleeping in nanoseconds. */
+    private final long mSpinThreshold;
+    /** True to yield while waiting for the deadline, false to busy-spin. */
+    private final boolean mYield;
+
+    /** The deadline of the current frame in nanoseconds. */
+    private long mDeadline;
+    /** Moving average of the time the thread slept beyond the requested duration in nanoseconds. */
+    private long mSleepOvershoot;
+
+    public HybridFramePacer() {
+        this(DEFAULT_SPIN_THRESHOLD, true);
+    }
+
+    /**
+     * @param spinThreshold Minimum time before the deadline under which the pacer stops sleeping in nanoseconds.
+     * @param yield True to yield while waiting for the deadline, false to busy-spin.
+     */
+    public HybridFramePacer(long spinThreshold, boolean yield) {
+        mSpinThreshold = spinThreshold;
+        mYield = yield;
+    }
+
+    @Override
+    public void reset(long now) {
+        mDeadline = now;
+        mSleepOvershoot = 0;
+    }
+
+    @Override
+    public long awaitNextFrame(long frameDuration) throws InterruptedException {
+
+        mDeadline += frameDuration;
+        long now = System.nanoTime();
+
+        if (now >= mDeadline) {
+            final long delay = now - mDeadline;
+            // More than a frame late: give up catching up.
+            if (delay > frameDuration) {
+                mDeadline = now;
+            }
+            return delay;
+        }
+
+        // Coarse wait
+        final long sleepTime = mDeadline - now - Math.max(mSpinThreshold, mSleepOvershoot);
+        if (sleepTime > 0) {
+            Thread.sleep(sleepTime / NANOS_PER_MILLI, (int) (sleepTime % NANOS_PER_MILLI));
+            final long overshoot = System.nanoTime() - now - sleepTime;
+            mSleepOvershoot += (overshoot - mSleepOvershoot) / 8;
+        }
+
+        // Fine wait
+        while (System.nanoTime() < mDeadline) {
+            if (mYield) {
+                Thread.yield();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,33 @@
+package org.es.engine.gamemechanic.timing;
+
+/**
+ * Game clock that only elapses when it is told to.<br />
+ * Used to replay a game deterministically, to run it headless and in tests.
+ *
+ * @author Cyril Leroux
+ *         Created on 10/03/14.
+ */
+public class ManualGameClock extends GameClock {
+
+    private long mTime = 0;
+
+    @Override
+    public synchronized long nanoTime() { return mTime; }
+
+    /**
+     * Make the game time elapse. Ignored while the clock is paused.
+     *
+     * @param duration The duration to add in nanoseconds.
+     */
+    public synchronized void advance(long duration) {
+        if (!isPaused()) {
+            mTime += duration;
+        }
+    }
+
+    @Override
+    protected void onPause() { }
+
+    @Override
+    protected void onResume() { }
+}
@@ -0,0 +1,48 @@
+package org.es.engine.gamemechanic.timing;
+
+/**
+ * Tick source that delivers the ticks it is told to.<br />
+ * Used to drive the loop step by step in tests.
+ *
+ * @author Cyril Leroux
+ *         Created on 11/03/14.
+ */
+public class ManualTickSource implements TickSource {
+
+    /** Time of the last delivered tick. Guarded by this. */
+    private long mLastTick = -1;
+    /** Time of the last tick returned by {@link #awaitTick(long)}. Guarded by this. */
+    private long mLastFrame = -1;
+    private boolean mStopped = false;
+
+    @Override
+    public synchronized void start() {
+        mStopped = false;
+    }
+
+    @Override
+    public synchronized void stop() {
+        mStopped = true;
+        notifyAll();
+    }
+
+    /**
+     * Deliver a tick.
+     *
+     * @param time The time of the tick in nanoseconds.
+     */
+    public synchronized void tick(long time) {
+        mLastTick = time;
+        notifyAll();
+    }
+
+    /** Every tick starts a frame: the frame duration is ignored. */
+    @Override
+    public synchronized long awaitTick(long frameDuration) throws InterruptedException {
+        while (mLastTick == mLastFrame && !mStopped) {
+            wait();
+        }
+        mLastFrame = mLastTick;
+        return mLastFrame;
+    }
+}
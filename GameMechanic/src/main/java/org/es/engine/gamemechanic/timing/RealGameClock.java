@@ -0,0 +1,32 @@
+package org.es.engine.gamemechanic.timing;
+
+/**
+ * Game clock following the system monotonic time, minus the pauses.<br />
+ * The default clock of the drawing threads.
+ *
+ * @author Cyril Leroux
+ *         Created on 10/03/14.
+ */
+public class RealGameClock extends GameClock {
+
+    /** Total duration of the pauses in nanoseconds. */
+    private long mPausedTime = 0;
+    /** System time of the current pause start. Meaningless if the clock is running. */
+    private long mPauseStart = 0;
+
+    @Override
+    public synchronized long nanoTime() {
+        final long now = isPaused() ? mPauseStart : System.nanoTime();
+        return now - mPausedTime;
+    }
+
+    @Override
+    protected void onPause() {
+        mPauseStart = System.nanoTime();
+    }
+
+    @Override
+    protected void onResume() {
+        mPausedTime += System.nanoTime() - mPauseStart;
+    }
+}
@@ -0,0 +1,60 @@
+package org.es.engine.gamemechanic.timing;
+
+/**
+ * Game clock elapsing faster or slower than the real time.<br />
+ * Used to fast-forward a game (benchmarks, balance tests) or to play it in slow motion.
+ *
+ * @author Cyril Leroux
+ *         Created on 10/03/14.
+ */
+public class ScaledGameClock extends GameClock {
+
+    private float mScale;
+    /** The game time at the anchor. */
+    private long mAnchorGameTime = 0;
+    /** The system time at the anchor. */
+    private long mAnchorRealTime = System.nanoTime();
+
+    /** @param scale How fast the game time elapses compared to the real time. 1 for the real time. */
+    public ScaledGameClock(float scale) {
+        mScale = scale;
+    }
+
+    @Override
+    public synchronized long nanoTime() {
+        if (isPaused()) {
+            return mAnchorGameTime;
+        }
+        return elapsedSinceAnchor();
+    }
+
+    private long elapsedSinceAnchor() {
+        return mAnchorGameTime + (long) ((System.nanoTime() - mAnchorRealTime) * mScale);
+    }
+
+    @Override
+    public synchronized float getScale() { return mScale; }
+
+    /**
+     * Change the speed of the clock. The game time already elapsed is not affected.
+     *
+     * @param scale How fast the game time elapses compared to the real time. 1 for the real time.
+     */
+    public synchronized void setScale(float scale) {
+        if (!isPaused()) {
+            mAnchorGameTime = elapsedSinceAnchor();
+            mAnchorRealTime = System.nanoTime();
+        }
+        mScale = scale;
+    }
+
+    @Override
+    protected void onPause() {
+        mAnchorGameTime = elapsedSinceAnchor();
+    }
+
+    @Override
+    protected void onResume() {
+        mAnchorRealTime = System.nanoTime();
+    }
+}
@@ -0,0 +1,40 @@
+package org.es.engine.gamemechanic.timing;
+
+/**
+ * Frame pacer that only relies on {@link Thread#sleep(long, int)}.<br />
+ * Cheap on the CPU but subject to the scheduler granularity: the thread often wakes up late.
+ * The deadlines are absolute so the lateness of a frame is deducted from the next one.
+ *
+ * @author Cyril Leroux
+ *         Created on 03/03/14.
+ */
+public class SleepFramePacer implements FramePacer {
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    /** The deadline of the current frame in nanoseconds. */
+    private long mDeadline;
+
+    @Override
+    public void reset(long now) {
+        mDeadline = now;
+    }
+
+    @Override
+    public long awaitNextFrame(long frameDuration) throws InterruptedException {
+
+        mDeadline += frameDuration;
+        final long remaining = mDeadline - System.nanoTime();
+
+        if (remaining <= 0) {
+            // More than a frame late: give up catching up.
+            if (-remaining > frameDuration) {
+                mDeadline = System.nanoTime();
+            }
+            return -remaining;
+        }
+
+        Thread.sleep(remaining / NANOS_PER_MILLI, (int) (remaining % NANOS_PER_MILLI));
+        return 0;
+    }
+}
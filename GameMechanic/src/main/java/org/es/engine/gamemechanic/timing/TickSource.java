@@ -0,0 +1,28 @@
+package org.es.engine.gamemechanic.timing;
+
+/**
+ * Source of the ticks starting the frames, such as the display vertical synchronization.<br />
+ * Replaces the {@link FramePacer} of the thread drawing the frames to align them on the display refresh.
+ *
+ * @author Cyril Leroux
+ *         Created on 11/03/14.
+ */
+public interface TickSource {
+
+    /** Start delivering ticks. Called before the first frame. */
+    void start();
+
+    /** Stop delivering ticks and release the threads waiting for one. */
+    void stop();
+
+    /**
+     * Block the calling thread until the tick starting the next frame.<br />
+     * The ticks that come too early for the frame duration are skipped.
+     * Returns immediately with the last tick if the frame is already late.
+     *
+     * @param frameDuration The expected duration of a frame in nanoseconds.
+     * @return The time of the tick in nanoseconds, on the {@link System#nanoTime()} time base.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    long awaitTick(long frameDuration) throws InterruptedException;
+}
@@ -3,120 +3,77 @@ package org.es.engine.graphics.animation;
 import android.graphics.Canvas;
 import android.graphics.RectF;
 
+import org.es.engine.graphics.sprite.SpriteBatch;
+
 /**
  * Animation class.<br />
- * An animation is an autonomous object that will display a list of images at a predefine rate.
+ * An animation is the immutable definition of a list of images displayed at a predefine rate.
+ * It holds no playback state and can be shared by all the elements playing it.
+ * The playback state of each element is held by an {@link AnimationPlayer}.
  *
  * @author Cyril Leroux
  *         Created on 26/09/13.
  */
 public abstract class Animation {
 
-    protected static enum State {
-        STATE_RUNNING,
-        STATE_STOPPING,
-        STATE_STOPPED
-    }
-
-    private final AnimationCallback mCallback;
     /** True if the animation is supposed to play loop. */
     private final boolean mIsLoop;
     /** The time during which a bitmap is on the screen before proceeding to the next one. */
     private final float mFrameDuration;
 
-    protected int mCurrentFrameId;
-    /** The current state of the animation. It can be either one of RUNNING, STOPPING or STOPPED. */
-    private State mState;
-    /** Time of the last bitmap update. */
-    private long mLastUpdate;
-    private long mStartTime;
-
     /**
      * @param frameDuration Frame duration in milliseconds.
      * @param isLoop True if the animation is supposed to play loop.
-     * @param callback The object that will be called when the animation ends.
      */
-    public Animation(float frameDuration, boolean isLoop, AnimationCallback callback) {
-
-        mCallback = callback;
+    public Animation(float frameDuration, boolean isLoop) {
         mIsLoop = isLoop;
         mFrameDuration = frameDuration;
-
-        mState = State.STATE_RUNNING;
-        mStartTime = -1;
-    }
-
-    public abstract void draw(Canvas canvas, RectF boundingRect);
-
-    protected abstract float getWidth();
-
-    protected abstract float getHeight();
-
-    /** @return The number of frames in the animation. */
-    protected abstract int getFrameCount();
-
-    public void start() {
-
-        if (mState != State.STATE_RUNNING) {
-            mCurrentFrameId = 0;
-            mStartTime = System.currentTimeMillis();
-            mLastUpdate = mStartTime;
-            mState = State.STATE_RUNNING;
-        }
     }
 
-    public void stop() {
-
-        if (mState == State.STATE_RUNNING) {
-            mState = State.STATE_STOPPING;
-        }
-    }
-
-    /** Update the current frame id if necessary. */
-    public boolean updateFrame() {
-
-        if (mState == State.STATE_STOPPED) {
-            return false;
-        }
-
-        final float elapsedTime = System.currentTimeMillis() - mLastUpdate;
-        final int step = (int) (elapsedTime / mFrameDuration);
-        if (step >= 1) {
-            incrementImageId(step);
-            return true;
-        }
-        return false;
-    }
+    /**
+     * Draw a frame of the animation.<br />
+     * Does not depend on any playback state: can be called with a frame id saved earlier.
+     *
+     * @param canvas The canvas on which to draw.
+     * @param frameId The id of the frame to draw.
+     * @param boundingRect The destination of the frame on the canvas.
+     */
+    public abstract void drawFrame(Canvas canvas, int frameId, RectF boundingRect);
 
-    private void incrementImageId(int step) {
+    /**
+     * Add a frame of the animation to a sprite batch, to be drawn with the other frames of the same bitmap.
+     *
+     * @param batch The batch of the frame being drawn.
+     * @param frameId The id of the frame to draw.
+     * @param boundingRect The destination of the frame on the canvas.
+     */
+    public abstract void drawFrame(SpriteBatch batch, int frameId, RectF boundingRect);
 
-        if (mState == State.STATE_STOPPED) {
-            return;
-        }
+    /**
+     * Create a copy of the animation with its frames scaled, for them to be drawn without resampling.
+     * Called on a background thread (see {@link ScaledFrameCache}).
+     *
+     * @param scaleX The horizontal scale of the frames.
+     * @param scaleY The vertical scale of the frames.
+     * @return The scaled animation or null if the animation cannot be scaled.
+     */
+    protected abstract Animation createScaled(float scaleX, float scaleY);
 
-        // update bitmap id for the next draw
-        mCurrentFrameId += step;
+    /** Free the bitmaps of an animation created by {@link #createScaled(float, float)}. */
+    protected abstract void recycle();
 
-        if (mIsLoop && mState != State.STATE_STOPPING) {
-            // if current id is greater than max value then wrap
-            mCurrentFrameId %= getFrameCount();
+    /** @return The width of the frame in pixels. */
+    protected abstract float getWidth(int frameId);
 
-        } else if (mCurrentFrameId >= getFrameCount() - 1) {
-            // Animation stops when it reaches the last bitmap
-            mCurrentFrameId = getFrameCount() - 1;
-            mState = State.STATE_STOPPED;
-            mStartTime = -1;
-            if (mCallback != null) {
-                mCallback.onAnimationStopped();
-            }
-        }
+    /** @return The height of the frame in pixels. */
+    protected abstract float getHeight(int frameId);
 
-        mLastUpdate = System.currentTimeMillis();
-    }
+    /** @return The number of frames in the animation. */
+    protected abstract int getFrameCount();
 
-    public boolean isRunning() {
-        return (mState == State.STATE_RUNNING) || (mState == State.STATE_STOPPING);
-    }
+    /** @return Frame duration in milliseconds. */
+    public float getFrameDuration() { return mFrameDuration; }
 
-    public long getStartTime() { return mStartTime; }
+    /** @return True if the animation is supposed to play loop. */
+    public boolean isLoop() { return mIsLoop; }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package org.es.engine.graphics.animation;
+
+import android.graphics.Canvas;
+import android.graphics.RectF;
+
+/**
+ * The playback state of an animation for one element.<br />
+ * The current frame is not incremented but derived from the start time:
+ * <code>(time - start) / frameDuration</code>, wrapped if the animation loops or clamped otherwise.
+ * The time is usually the one of the {@link AnimationTicker} of the game.<br />
+ * The animation itself is shared: changing it keeps the start time,
+ * so that a walking unit turning around does not restart its walk cycle.
+ *
+ * @author Cyril Leroux
+ *         Created on 15/03/14.
+ */
+public class AnimationPlayer {
+
+    protected static enum State {
+        STATE_RUNNING,
+        STATE_STOPPING,
+        STATE_STOPPED
+    }
+
+    private final AnimationCallback mCallback;
+    private Animation mAnimation;
+
+    /** The frame computed by the last update. */
+    private int mCurrentFrameId;
+    /** The number of frames played since the start, computed by the last update. */
+    private long mPlayedFrames;
+    /** The current state of the animation. It can be either one of RUNNING, STOPPING or STOPPED. */
+    private State mState;
+    /** Game time of the first frame in milliseconds. -1 until the first start or update. */
+    private long mStartTime;
+    /** When stopping, the number of frames played since the start at which the animation stops. */
+    private long mStopFrame;
+
+    /**
+     * @param animation The animation to play.
+     * @param callback The object that will be called when the animation ends. May be null.
+     */
+    public AnimationPlayer(Animation animation, AnimationCallback callback) {
+        mAnimation = animation;
+        mCallback = callback;
+
+        mState = State.STATE_RUNNING;
+        mStartTime = -1;
+    }
+
+    /**
+     * Draw the current frame of the animation.
+     *
+     * @param canvas The canvas on which to draw.
+     * @param boundingRect The destination of the frame on the canvas.
+     */
+    public void draw(Canvas canvas, RectF boundingRect) {
+        mAnimation.drawFrame(canvas, mCurrentFrameId, boundingRect);
+    }
+
+    /**
+     * Change the animation played. The state and the start time are kept.
+     *
+     * @param animation The new animation.
+     */
+    public void setAnimation(Animation animation) {
+        mAnimation = animation;
+        final int frameCount = animation.getFrameCount();
+        if (mCurrentFrameId >= frameCount) {
+            mCurrentFrameId = animation.isLoop() ? mCurrentFrameId % frameCount : frameCount - 1;
+        }
+        if (mState == State.STATE_STOPPING) {
+            // Stop at the end of the cycle of the new animation.
+            mStopFrame = getStopFrame(mPlayedFrames);
+        }
+    }
+
+    public Animation getAnimation() { return mAnimation; }
+
+    /**
+     * Start the animation from its first frame.
+     *
+     * @param time The current game time in milliseconds.
+     */
+    public void start(long time) {
+
+        if (mState != State.STATE_RUNNING) {
+            mCurrentFrameId = 0;
+            mPlayedFrames = 0;
+            mStartTime = time;
+            mState = State.STATE_RUNNING;
+        }
+    }
+
+    /** The animation stops when it reaches its last frame. */
+    public void stop() {
+
+        if (mState == State.STATE_RUNNING) {
+            mState = State.STATE_STOPPING;
+            mStopFrame = getStopFrame(mPlayedFrames);
+        }
+    }
+
+    /**
+     * @param playedFrames The number of frames played since the start.
+     * @return The number of frames played since the start when reaching the next last frame.
+     */
+    private long getStopFrame(long playedFrames) {
+        final int frameCount = mAnimation.getFrameCount();
+        return (playedFrames / frameCount + 1) * frameCount - 1;
+    }
+
+    /**
+     * Compute the current frame id from the start time.
+     *
+     * @param time The current game time in milliseconds.
+     * @return True if the frame changed.
+     */
+    public boolean updateFrame(long time) {
+
+        final float frameDuration = mAnimation.getFrameDuration();
+        if (mState == State.STATE_STOPPED || frameDuration <= 0) {
+            // A negative duration means a static frame.
+            return false;
+        }
+        if (mStartTime < 0) {
+            // Never started: play from now on.
+            mStartTime = time;
+        }
+
+        final int frameCount = mAnimation.getFrameCount();
+        final long playedFrames = Math.max(0, (long) ((time - mStartTime) / frameDuration));
+        final int previousFrameId = mCurrentFrameId;
+        mPlayedFrames = playedFrames;
+
+        if (mState == State.STATE_STOPPING && playedFrames >= mStopFrame
+                || !mAnimation.isLoop() && playedFrames >= frameCount - 1) {
+            // Animation stops when it reaches the last bitmap
+            mCurrentFrameId = frameCount - 1;
+            mState = State.STATE_STOPPED;
+            mStartTime = -1;
+            if (mCallback != null) {
+                mCallback.onAnimationStopped();
+            }
+            return true;
+        }
+
+        // if current id is greater than max value then wrap
+        mCurrentFrameId = (int) (playedFrames % frameCount);
+        return mCurrentFrameId != previousFrameId;
+    }
+
+    public boolean isRunning() {
+        return (mState == State.STATE_RUNNING) || (mState == State.STATE_STOPPING);
+    }
+
+    public long getStartTime() { return mStartTime; }
+
+    /** @return The id of the frame currently displayed. */
+    public int getCurrentFrameId() { return mCurrentFrameId; }
+}
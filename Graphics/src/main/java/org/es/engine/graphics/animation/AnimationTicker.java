@@ -0,0 +1,39 @@
+package org.es.engine.graphics.animation;
+
+/**
+ * The time shared by all the animations of a game for the current tick.<br />
+ * The game thread reads its clock once per tick and passes the time to {@link #tick(long)}.
+ * All the animations are then updated with {@link #getTime()}. Since an {@link AnimationPlayer} derives
+ * its frame from this time and its start time only, a single timestamp is read per tick
+ * whatever the number of animations.
+ *
+ * @author Cyril Leroux
+ *         Created on 17/03/14.
+ */
+public class AnimationTicker {
+
+    /** Game time of the current tick in milliseconds. */
+    private volatile long mTime;
+    private volatile long mTickCount;
+
+    public AnimationTicker() {
+        mTime = 0;
+        mTickCount = 0;
+    }
+
+    /**
+     * Start a new tick.
+     *
+     * @param time The game time of the tick in milliseconds.
+     */
+    public void tick(long time) {
+        mTime = time;
+        mTickCount++;
+    }
+
+    /** @return The game time of the current tick in milliseconds. */
+    public long getTime() { return mTime; }
+
+    /** @return The number of ticks since the creation of the ticker. */
+    public long getTickCount() { return mTickCount; }
+}
@@ -2,10 +2,12 @@ package org.es.engine.graphics.animation;
 
 import android.content.res.Resources;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.RectF;
 
+import org.es.engine.graphics.sprite.SpriteBatch;
+import org.es.engine.graphics.utils.BitmapCache;
+
 /**
  * A BitmapAnimation is an Animation created from a bitmap array.
  *
@@ -22,10 +24,9 @@ public class BitmapAnimation extends Animation {
      * @param bitmaps The animation bitmaps.
      * @param frameDuration Frame duration in milliseconds.
      * @param isLoop True if the animation is supposed to play loop.
-     * @param callback The object that will be called when the animation ends.
      */
-    public BitmapAnimation(Bitmap[] bitmaps, float frameDuration, boolean isLoop, AnimationCallback callback) {
-        super(frameDuration, isLoop, callback);
+    public BitmapAnimation(Bitmap[] bitmaps, float frameDuration, boolean isLoop) {
+        super(frameDuration, isLoop);
         mFrames = bitmaps;
     }
 
@@ -36,14 +37,13 @@ public class BitmapAnimation extends Animation {
      * @param resourceIds The resource ids used to instantiate animation bitmaps.
      * @param frameDuration Frame duration in milliseconds.
      * @param isLoop True if the animation is supposed to play loop.
-     * @param callback The object that will be called when the animation ends.
      */
-    public BitmapAnimation(Resources resources, int[] resourceIds, float frameDuration, boolean isLoop, AnimationCallback callback) {
-        this(getBitmapsFromResources(resources, resourceIds), frameDuration, isLoop, callback);
+    public BitmapAnimation(Resources resources, int[] resourceIds, float frameDuration, boolean isLoop) {
+        this(getBitmapsFromResources(resources, resourceIds), frameDuration, isLoop);
     }
 
     /**
-     * Loads an array of bitmaps from the Resources.
+     * Loads an array of bitmaps from the Resources, through the {@link BitmapCache}.
      *
      * @param resources The Resources from which to load the bitmaps.
      * @param resourceIds The ids of the resources to load.
@@ -52,24 +52,48 @@ public class BitmapAnimation extends Animation {
     private static Bitmap[] getBitmapsFromResources(Resources resources, int[] resourceIds) {
         final int bitmapCount = resourceIds.length;
         Bitmap[] bitmaps = new Bitmap[bitmapCount];
+        final BitmapCache cache = BitmapCache.getInstance();
 
         for (int i = 0; i < bitmapCount; i++) {
-            bitmaps[i] = BitmapFactory.decodeResource(resources, resourceIds[i]);
+            bitmaps[i] = cache.get(resources, resourceIds[i]);
         }
         return bitmaps;
     }
 
     @Override
-    public void draw(Canvas canvas, RectF boundingRect) {
-        canvas.drawBitmap(mFrames[mCurrentFrameId], null, boundingRect, null);
+    public void drawFrame(Canvas canvas, int frameId, RectF boundingRect) {
+        canvas.drawBitmap(mFrames[frameId], null, boundingRect, null);
+    }
+
+    @Override
+    public void drawFrame(SpriteBatch batch, int frameId, RectF boundingRect) {
+        batch.draw(mFrames[frameId], null, boundingRect);
+    }
+
+    @Override
+    protected Animation createScaled(float scaleX, float scaleY) {
+        final Bitmap[] scaledFrames = new Bitmap[mFrames.length];
+        for (int i = 0; i < mFrames.length; i++) {
+            final int width = Math.max(1, Math.round(mFrames[i].getWidth() * scaleX));
+            final int height = Math.max(1, Math.round(mFrames[i].getHeight() * scaleY));
+            scaledFrames[i] = Bitmap.createScaledBitmap(mFrames[i], width, height, true);
+        }
+        return new BitmapAnimation(scaledFrames, getFrameDuration(), isLoop());
+    }
+
+    @Override
+    protected void recycle() {
+        for (Bitmap frame : mFrames) {
+            frame.recycle();
+        }
     }
 
     @Override
     protected int getFrameCount() { return mFrames.length; }
 
     @Override
-    protected float getWidth() { return mFrames[mCurrentFrameId].getWidth(); }
+    protected float getWidth(int frameId) { return mFrames[frameId].getWidth(); }
 
     @Override
-    protected float getHeight() { return mFrames[mCurrentFrameId].getHeight(); }
+    protected float getHeight(int frameId) { return mFrames[frameId].getHeight(); }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package org.es.engine.graphics.animation;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A cache of animations whose frames are already scaled to the size they are drawn at.<br />
+ * Drawing a pre-scaled frame is a 1:1 copy: the canvas does not resample the source at each draw.
+ * The size depends on the drawing coefficient, so it only changes with the surface size.<br />
+ * On a miss, the scaled animation is built on a background thread and the source animation is returned
+ * until it is ready. In the steady state, {@link #get(Animation, int, int)} does not allocate.<br />
+ * The scaled animations replaced after a change of size are kept until {@link #recycleRetired()} is called,
+ * once nothing draws them anymore.<br />
+ * Not thread safe: {@link #get(Animation, int, int)} must always be called by the same drawing thread.
+ *
+ * @author Cyril Leroux
+ *         Created on 20/03/14.
+ */
+public class ScaledFrameCache {
+
+    /** The scaled animations. Only accessed by the drawing thread. */
+    private final Map<Animation, Entry> mEntries;
+    /** The scaled animations replaced by another size, to be recycled. Only accessed by the drawing thread. */
+    private final List<Animation> mRetired;
+    private final ExecutorService mExecutor;
+
+    public ScaledFrameCache() {
+        mEntries = new IdentityHashMap<>();
+        mRetired = new ArrayList<>();
+        mExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "FrameScaler");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Get the animation scaled so that its frames are drawn at the requested size.
+     *
+     * @param animation The source animation.
+     * @param frameWidth The width of a frame on the canvas in pixels.
+     * @param frameHeight The height of a frame on the canvas in pixels.
+     * @return The scaled animation, or the source animation if the scaled one is not ready yet.
+     */
+    public Animation get(Animation animation, int frameWidth, int frameHeight) {
+        Entry entry = mEntries.get(animation);
+        if (entry == null || entry.mWidth != frameWidth || entry.mHeight != frameHeight) {
+            // The coefficient changed or the animation is new: scale it again.
+            if (entry != null) {
+                retire(entry);
+            }
+            entry = new Entry(animation, frameWidth, frameHeight);
+            mEntries.put(animation, entry);
+            if (frameWidth > 0 && frameHeight > 0) {
+                mExecutor.execute(entry);
+            }
+        }
+        final Animation scaled = entry.mScaled;
+        return (scaled == null) ? animation : scaled;
+    }
+
+    /** Forget all the scaled animations. They are recycled by the next call to {@link #recycleRetired()}. */
+    public void clear() {
+        for (Entry entry : mEntries.values()) {
+            retire(entry);
+        }
+        mEntries.clear();
+    }
+
+    /** @return True if some replaced animations wait for {@link #recycleRetired()}. */
+    public boolean hasRetired() { return !mRetired.isEmpty(); }
+
+    /**
+     * Recycle the bitmaps of the replaced animations.<br />
+     * To be called between two frames, after the batches referencing the bitmaps are cleared.
+     */
+    public void recycleRetired() {
+        final int retiredCount = mRetired.size();
+        for (int i = 0; i < retiredCount; i++) {
+            mRetired.get(i).recycle();
+        }
+        mRetired.clear();
+    }
+
+    /** Stop the background thread and recycle the scaled animations. Nothing must draw them anymore. */
+    public void release() {
+        mExecutor.shutdown();
+        clear();
+        recycleRetired();
+    }
+
+    private void retire(Entry entry) {
+        final Animation scaled = entry.retire();
+        if (scaled != null) {
+            mRetired.add(scaled);
+        }
+    }
+
+    /** An animation scaled to a frame size, built on the background thread. */
+    private static class Entry implements Runnable {
+
+        private final Animation mSource;
+        private final int mWidth;
+        private final int mHeight;
+        private volatile Animation mScaled;
+        /** True once the entry is replaced. Guarded by this. */
+        private boolean mRetired;
+
+        Entry(Animation source, int width, int height) {
+            mSource = source;
+            mWidth = width;
+            mHeight = height;
+        }
+
+        @Override
+        public void run() {
+            final float scaleX = mWidth / mSource.getWidth(0);
+            final float scaleY = mHeight / mSource.getHeight(0);
+            final Animation scaled = mSource.createScaled(scaleX, scaleY);
+            synchronized (this) {
+                if (!mRetired) {
+                    mScaled = scaled;
+                    return;
+                }
+            }
+            // Replaced while it was scaled: never drawn.
+            if (scaled != null) {
+                scaled.recycle();
+            }
+        }
+
+        /** @return The scaled animation to recycle, null if it is not scaled yet. */
+        synchronized Animation retire() {
+            mRetired = true;
+            return mScaled;
+        }
+    }
+}
@@ -2,11 +2,15 @@ package org.es.engine.graphics.animation;
 
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.RectF;
 
+import org.es.engine.graphics.sprite.SpriteBatch;
+
 /**
  * A SpriteSheetAnimation is an Animation created from a sprite sheet and a rectangle array.<br />
+ * The rectangles are not copied and must not be modified once the animation is created.
  *
  * @author Cyril Leroux
  *         Created on 03/02/14.
@@ -23,25 +27,78 @@ public class SpriteSheetAnimation extends Animation {
      * @param frames The rectangles to cut the sheet to create the animation.
      * @param frameDuration Frame duration in milliseconds.
      * @param isLoop True if the animation is supposed to play loop.
-     * @param callback The object that will be called when the animation ends.
      */
-    public SpriteSheetAnimation(Bitmap spriteSheet, Rect[] frames, float frameDuration, boolean isLoop, AnimationCallback callback) {
-        super(frameDuration, isLoop, callback);
+    public SpriteSheetAnimation(Bitmap spriteSheet, Rect[] frames, float frameDuration, boolean isLoop) {
+        super(frameDuration, isLoop);
         mSpriteSheet = spriteSheet;
         mFrames = frames;
     }
 
     @Override
-    public void draw(Canvas canvas, RectF boundingRect) {
-        Rect src = mFrames[mCurrentFrameId];
+    public void drawFrame(Canvas canvas, int frameId, RectF boundingRect) {
+        Rect src = mFrames[frameId];
         canvas.drawBitmap(mSpriteSheet, src, boundingRect, null);
     }
 
+    @Override
+    public void drawFrame(SpriteBatch batch, int frameId, RectF boundingRect) {
+        batch.draw(mSpriteSheet, mFrames[frameId], boundingRect);
+    }
+
+    /** Only the frames are scaled: they are copied side by side in a new, smaller sheet. */
+    @Override
+    protected Animation createScaled(float scaleX, float scaleY) {
+        final int frameCount = mFrames.length;
+        final Rect[] scaledFrames = new Rect[frameCount];
+
+        int sheetWidth = 0;
+        int sheetHeight = 0;
+        for (int i = 0; i < frameCount; i++) {
+            final int index = indexOfFrame(mFrames[i], i);
+            if (index < i) {
+                // Same region as a previous frame: share it.
+                scaledFrames[i] = scaledFrames[index];
+                continue;
+            }
+            final int width = Math.max(1, Math.round(mFrames[i].width() * scaleX));
+            final int height = Math.max(1, Math.round(mFrames[i].height() * scaleY));
+            scaledFrames[i] = new Rect(sheetWidth, 0, sheetWidth + width, height);
+            sheetWidth += width;
+            sheetHeight = Math.max(sheetHeight, height);
+        }
+
+        final Bitmap sheet = Bitmap.createBitmap(sheetWidth, sheetHeight, Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(sheet);
+        final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        final RectF dst = new RectF();
+        for (int i = 0; i < frameCount; i++) {
+            if (indexOfFrame(mFrames[i], i) == i) {
+                dst.set(scaledFrames[i]);
+                canvas.drawBitmap(mSpriteSheet, mFrames[i], dst, paint);
+            }
+        }
+        return new SpriteSheetAnimation(sheet, scaledFrames, getFrameDuration(), isLoop());
+    }
+
+    @Override
+    protected void recycle() { mSpriteSheet.recycle(); }
+
+    /** @return The index of the first frame with the same region, up to maxIndex. */
+    private int indexOfFrame(Rect frame, int maxIndex) {
+        for (int i = 0; i < maxIndex; i++) {
+            if (mFrames[i].equals(frame)) {
+                return i;
+            }
+        }
+        return maxIndex;
+    }
+
+    @Override
     protected int getFrameCount() { return mFrames.length; }
 
     @Override
-    protected float getWidth() { return mFrames[mCurrentFrameId].width(); }
+    protected float getWidth(int frameId) { return mFrames[frameId].width(); }
 
     @Override
-    protected float getHeight() { return mFrames[mCurrentFrameId].height(); }
+    protected float getHeight(int frameId) { return mFrames[frameId].height(); }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package org.es.engine.graphics.hud;
+
+import android.graphics.Canvas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The retained elements of the head-up display, composited in a single pass over the frame.<br />
+ * The elements keep their position and raster between frames: only the elements whose value changed
+ * are measured and rasterized again.
+ *
+ * @author Cyril Leroux
+ *         Created on 21/03/14.
+ */
+public class HudLayer {
+
+    private final List<HudText> mTexts;
+
+    public HudLayer() {
+        mTexts = new ArrayList<>();
+    }
+
+    /** Add a text, drawn at its position in the order of addition. */
+    public void add(HudText text) {
+        mTexts.add(text);
+    }
+
+    /** Draw all the elements. */
+    public void draw(Canvas canvas) {
+        final int textCount = mTexts.size();
+        for (int i = 0; i < textCount; i++) {
+            mTexts.get(i).draw(canvas);
+        }
+    }
+
+    /** Free the rasters of the elements. */
+    public void release() {
+        for (HudText text : mTexts) {
+            text.release();
+        }
+    }
+}
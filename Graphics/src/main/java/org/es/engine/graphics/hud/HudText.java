@@ -0,0 +1,160 @@
+package org.es.engine.graphics.hud;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+
+import org.es.engine.graphics.utils.TextBuffer;
+
+/**
+ * A text of the head-up display, measured and rasterized only when its value changes.<br />
+ * Drawing the text is a bitmap copy: the text is neither rebuilt nor measured at each frame.
+ * The raster is reused as long as the new text fits in it.
+ *
+ * @author Cyril Leroux
+ *         Created on 21/03/14.
+ */
+public class HudText {
+
+    /** Margin around the text in the raster, for the anti-aliasing. */
+    private static final int MARGIN = 1;
+
+    private final Paint mPaint;
+    private TextBuffer mText;
+    /** Used to build a new text and compare it to the current one without allocating. */
+    private TextBuffer mPendingText;
+    /** Bounds of the text relative to its origin on the baseline. */
+    private final Rect mBounds;
+    private Bitmap mRaster;
+    private final Canvas mRasterCanvas;
+    private boolean mInvalid;
+
+    /** Position of the origin of the text on the baseline, when drawn by a {@link HudLayer}. */
+    private float mX;
+    private float mY;
+
+    /**
+     * @param paint The paint of the text. Copied: later changes to the paint are ignored.
+     * @param capacity The maximum number of characters of the text.
+     */
+    public HudText(Paint paint, int capacity) {
+        mPaint = new Paint(paint);
+        mText = new TextBuffer(capacity);
+        mPendingText = new TextBuffer(capacity);
+        mBounds = new Rect();
+        mRasterCanvas = new Canvas();
+        mInvalid = true;
+    }
+
+    /** @return The paint of the text. Call {@link #invalidate()} after changing it. */
+    public Paint getPaint() { return mPaint; }
+
+    /** Set the text. Does nothing if the text did not change. */
+    public void setText(String text) {
+        mPendingText.clear().append(text);
+        commitPendingText();
+    }
+
+    /**
+     * Set the text to a number followed by a suffix. Does nothing if the text did not change.
+     *
+     * @param value The number to display.
+     * @param suffix The text written after the number. May be null.
+     */
+    public void setValue(long value, String suffix) {
+        mPendingText.clear().append(value);
+        if (suffix != null) {
+            mPendingText.append(suffix);
+        }
+        commitPendingText();
+    }
+
+    private void commitPendingText() {
+        if (mPendingText.contentEquals(mText)) {
+            return;
+        }
+        final TextBuffer text = mText;
+        mText = mPendingText;
+        mPendingText = text;
+        mInvalid = true;
+    }
+
+    /** Measure and rasterize the text again before the next draw. */
+    public void invalidate() { mInvalid = true; }
+
+    /** @param x The x-coordinate of the origin of the text, when drawn by a {@link HudLayer}.
+     *  @param y The y-coordinate of the baseline of the text. */
+    public void setPosition(float x, float y) {
+        mX = x;
+        mY = y;
+    }
+
+    /** @return The width of the text in pixels. */
+    public int getWidth() {
+        update();
+        return mBounds.width();
+    }
+
+    /** @return The height of the text in pixels. */
+    public int getHeight() {
+        update();
+        return mBounds.height();
+    }
+
+    /** Draw the text at its position. */
+    void draw(Canvas canvas) {
+        draw(canvas, mX, mY);
+    }
+
+    /**
+     * Draw the text as {@link Canvas#drawText(String, float, float, Paint)} would.
+     *
+     * @param canvas The canvas on which to draw.
+     * @param x The x-coordinate of the origin of the text.
+     * @param y The y-coordinate of the baseline of the text.
+     */
+    public void draw(Canvas canvas, float x, float y) {
+        update();
+        if (mText.length() == 0) {
+            return;
+        }
+        canvas.drawBitmap(mRaster, x + mBounds.left - MARGIN, y + mBounds.top - MARGIN, null);
+    }
+
+    /** Measure and rasterize the text if it changed. */
+    private void update() {
+        if (!mInvalid) {
+            return;
+        }
+        mInvalid = false;
+        mText.getTextBounds(mPaint, mBounds);
+        if (mText.length() == 0) {
+            return;
+        }
+
+        final int width = mBounds.width() + 2 * MARGIN;
+        final int height = mBounds.height() + 2 * MARGIN;
+        if (mRaster == null || mRaster.getWidth() < width || mRaster.getHeight() < height) {
+            if (mRaster != null) {
+                mRaster.recycle();
+            }
+            mRaster = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            mRasterCanvas.setBitmap(mRaster);
+        } else {
+            mRaster.eraseColor(Color.TRANSPARENT);
+        }
+        mText.draw(mRasterCanvas, MARGIN - mBounds.left, MARGIN - mBounds.top, mPaint);
+    }
+
+    /** Free the raster. It is created again on the next draw. */
+    public void release() {
+        if (mRaster != null) {
+            mRaster.recycle();
+            mRaster = null;
+        }
+        mInvalid = true;
+    }
+}
@@ -0,0 +1,92 @@
+package org.es.engine.graphics.parallax;
+
+import android.graphics.Canvas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scrolls a stack of {@link ParallaxLayer} at a speed given in pixels per second.<br />
+ * The distance traveled depends on the time elapsed since the previous update, not on the frame rate.
+ * The layers are scrolled by the simulation ticks and drawn at a position interpolated between the last two.
+ * The layers are drawn in the order of addition: the farthest first.
+ *
+ * @author Cyril Leroux
+ *         Created on 22/03/14.
+ */
+public class ParallaxEngine {
+
+    private final List<ParallaxLayer> mLayers;
+    /** The speed of the foreground in pixels per second. Positive to scroll the layers to the left. */
+    private volatile float mScrollSpeed;
+    /** Game time of the last update in milliseconds. -1 before the first update. */
+    private long mLastUpdate;
+
+    public ParallaxEngine() {
+        mLayers = new ArrayList<>();
+        mScrollSpeed = 0;
+        mLastUpdate = -1;
+    }
+
+    /** Add a layer in front of the previous ones. */
+    public ParallaxEngine addLayer(ParallaxLayer layer) {
+        mLayers.add(layer);
+        return this;
+    }
+
+    public void onUpdateSurfaceSize(int surfaceWidth, int surfaceHeight) {
+        for (ParallaxLayer layer : mLayers) {
+            layer.onUpdateSurfaceSize(surfaceWidth, surfaceHeight);
+        }
+    }
+
+    /**
+     * Set the scrolling speed. May be called from another thread than the one drawing the layers.
+     *
+     * @param speed The speed of the foreground in pixels per second. Positive to move towards the right,
+     *              i.e. to scroll the layers to the left.
+     */
+    public void setScrollSpeed(float speed) { mScrollSpeed = speed; }
+
+    public float getScrollSpeed() { return mScrollSpeed; }
+
+    /**
+     * Scroll the layers depending on the time elapsed since the previous call.
+     *
+     * @param time The current game time in milliseconds.
+     */
+    public void update(long time) {
+        if (mLastUpdate >= 0) {
+            scroll(mScrollSpeed * (time - mLastUpdate) / 1000f);
+        }
+        mLastUpdate = time;
+    }
+
+    /** @param distance The distance traveled by the foreground in pixels. Positive to scroll the layers to the left. */
+    public void scroll(float distance) {
+        final int layerCount = mLayers.size();
+        for (int i = 0; i < layerCount; i++) {
+            mLayers.get(i).scroll(distance);
+        }
+    }
+
+    /**
+     * Draw the layers, from the farthest to the nearest. Does not change the scroll position.
+     *
+     * @param canvas The canvas on which to draw.
+     * @param interpolation Ratio between 0 (previous update) and 1 (last update) of the scroll position to draw.
+     */
+    public void draw(Canvas canvas, float interpolation) {
+        final int layerCount = mLayers.size();
+        for (int i = 0; i < layerCount; i++) {
+            mLayers.get(i).draw(canvas, interpolation);
+        }
+    }
+
+    /** Free the resources of the layers. */
+    public void release() {
+        for (ParallaxLayer layer : mLayers) {
+            layer.release();
+        }
+    }
+}
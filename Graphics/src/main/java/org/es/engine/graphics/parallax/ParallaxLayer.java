@@ -0,0 +1,126 @@
+package org.es.engine.graphics.parallax;
+
+import android.graphics.Canvas;
+
+/**
+ * A layer of a {@link ParallaxEngine}, repeated horizontally to fill the surface.<br />
+ * The layer scrolls at a fraction of the engine speed: the farther the layer, the lower the factor.
+ * The scroll position is kept as a fraction of the tile width so that it survives a change of the surface size.<br />
+ * The surface size may change on another thread while the layer is drawn:
+ * the layout is updated by the drawing thread, before the next draw (see {@link #onLayout(int, int)}).
+ *
+ * @author Cyril Leroux
+ *         Created on 22/03/14.
+ */
+public abstract class ParallaxLayer {
+
+    private final float mSpeedFactor;
+    /** The scroll position in tile widths at the last update, between 0 and 1. */
+    private float mScroll;
+    /** The distance scrolled by the last update in tile widths, to interpolate the drawn position. */
+    private float mLastStep;
+    /** True if the surface size changed since the last layout. Publishes the requested size. */
+    private volatile boolean mLayoutInvalid;
+    private int mRequestedWidth;
+    private int mRequestedHeight;
+    /** The width of a tile on the surface, set by the layout. Read by the thread scrolling the layer. */
+    private volatile float mTileWidth;
+    /** The surface size of the current layout. Only accessed by the drawing thread. */
+    protected int mSurfaceWidth;
+    protected int mSurfaceHeight;
+
+    /** @param speedFactor The ratio between the speed of the layer and the speed of the engine. 1 for the foreground. */
+    protected ParallaxLayer(float speedFactor) {
+        mSpeedFactor = speedFactor;
+        mScroll = 0;
+        mLastStep = 0;
+        mLayoutInvalid = false;
+        mTileWidth = 0;
+    }
+
+    public float getSpeedFactor() { return mSpeedFactor; }
+
+    /** Request a new layout for the surface size. May be called on any thread. */
+    public void onUpdateSurfaceSize(int surfaceWidth, int surfaceHeight) {
+        mRequestedWidth = surfaceWidth;
+        mRequestedHeight = surfaceHeight;
+        mLayoutInvalid = true;
+    }
+
+    /**
+     * Scroll the layer.
+     *
+     * @param distance The distance traveled by the engine in pixels. Positive to scroll the layer to the left.
+     */
+    void scroll(float distance) {
+        final float tileWidth = mTileWidth;
+        if (tileWidth <= 0 || distance == 0) {
+            mLastStep = 0;
+            return;
+        }
+        mLastStep = distance * mSpeedFactor / tileWidth;
+        mScroll += mLastStep;
+        mScroll -= (float) Math.floor(mScroll);
+        onScroll(distance * mSpeedFactor);
+    }
+
+    /**
+     * Draw as many tiles as needed to cover the surface width.
+     *
+     * @param canvas The canvas on which to draw.
+     * @param interpolation Ratio between 0 (previous update) and 1 (last update) of the scroll position to draw.
+     */
+    public void draw(Canvas canvas, float interpolation) {
+        if (mLayoutInvalid) {
+            mLayoutInvalid = false;
+            mSurfaceWidth = mRequestedWidth;
+            mSurfaceHeight = mRequestedHeight;
+            mTileWidth = (mSurfaceWidth > 0 && mSurfaceHeight > 0) ? onLayout(mSurfaceWidth, mSurfaceHeight) : 0;
+        }
+        final float tileWidth = mTileWidth;
+        if (tileWidth <= 0) {
+            return;
+        }
+        float scroll = mScroll - mLastStep * (1f - interpolation);
+        scroll -= (float) Math.floor(scroll);
+        for (float left = -scroll * tileWidth; left < mSurfaceWidth; left += tileWidth) {
+            drawTile(canvas, left);
+        }
+    }
+
+    /** @return The width of a tile on the surface in pixels, 0 if the layer can not be drawn yet. */
+    protected float getTileWidth() { return mTileWidth; }
+
+    /** @return The abscissa of the surface left edge in the tile at the last update, in pixels on the surface. */
+    protected float getScrollX() { return mScroll * mTileWidth; }
+
+    /** @return The largest power of 2 sample size which keeps the decoded image at least as high as the surface. */
+    protected static int getSampleSize(int imageHeight, int surfaceHeight) {
+        int sampleSize = 1;
+        while (imageHeight / (sampleSize * 2) >= surfaceHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Compute the layout for a new surface size. Called on the drawing thread, before the next draw.
+     *
+     * @return The width of a tile on the surface in pixels, 0 if the layer can not be drawn.
+     */
+    protected abstract float onLayout(int surfaceWidth, int surfaceHeight);
+
+    /** Called after the layer scrolled. Does nothing by default. */
+    protected void onScroll(float distance) { }
+
+    /**
+     * Draw the part of a tile visible on the surface.
+     *
+     * @param canvas The canvas on which to draw.
+     * @param left The abscissa of the tile left edge on the surface. May be negative.
+     */
+    protected abstract void drawTile(Canvas canvas, float left);
+
+    /** Free the resources of the layer. Does nothing by default. */
+    public void release() { }
+}
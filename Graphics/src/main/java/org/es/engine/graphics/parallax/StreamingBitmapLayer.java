@@ -0,0 +1,350 @@
+package org.es.engine.graphics.parallax;
+
+import android.annotation.TargetApi;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A parallax layer streaming a wide image resource by vertical strips.<br />
+ * Only the strips near the viewport are decoded, with a {@link BitmapRegionDecoder}, and kept in a small ring:
+ * the memory used depends on the surface size, not on the image width.
+ * The strips ahead of the scroll direction are decoded on a background thread before they become visible.
+ * A visible strip which is not decoded yet is decoded on the drawing thread,
+ * or waited for if it is being decoded in the background: the layer never leaves a hole.
+ *
+ * @author Cyril Leroux
+ *         Created on 23/03/14.
+ */
+@TargetApi(Build.VERSION_CODES.GINGERBREAD_MR1)
+public class StreamingBitmapLayer extends ParallaxLayer {
+
+    /** Number of strips covering the surface width. */
+    private static final int STRIPS_PER_SCREEN = 4;
+    /** Number of strips decoded ahead of the scroll direction. */
+    private static final int PREFETCH_STRIPS = 2;
+    /** The visible strips, one more for the partially visible ones at both edges, and the prefetched ones. */
+    private static final int RING_SIZE = STRIPS_PER_SCREEN + 2 + PREFETCH_STRIPS;
+
+    /** Decodes the strips one at a time: the decoder is not safe for concurrent decodes on old devices. */
+    private final BitmapRegionDecoder mDecoder;
+    /** The region and the options of the strip being decoded. Guarded by mDecoder. */
+    private final Rect mDecodeRegion;
+    private final BitmapFactory.Options mDecodeOptions;
+    private final int mImageWidth;
+    private final int mImageHeight;
+    private final ExecutorService mExecutor;
+    private final Paint mPaint;
+    private final RectF mDst;
+
+    /** The decoded strips. Guarded by this. */
+    private final Strip[] mRing;
+    /** Incremented when the strips layout changes, to drop the strips decoded with the previous one. Guarded by this. */
+    private int mGeneration;
+
+    /** The strips layout, computed by the drawing thread after a change of the surface size. */
+    private int mSampleSize;
+    /** Width of a strip in pixels of the image. */
+    private int mStripWidth;
+    private int mStripCount;
+    /** Ratio between the height of the surface and the height of the image. */
+    private float mScale;
+
+    /** 1 if the layer last scrolled to the left, -1 if it scrolled to the right. */
+    private int mDirection;
+    /** Incremented at each draw to find the least recently drawn strip. */
+    private long mFrame;
+
+    /**
+     * @param resources The resources from which the image is decoded.
+     * @param resourceId The id of the image resource. Must be a JPEG or PNG file.
+     * @param speedFactor The ratio between the speed of the layer and the speed of the engine.
+     */
+    public StreamingBitmapLayer(Resources resources, int resourceId, float speedFactor) {
+        super(speedFactor);
+
+        InputStream stream = resources.openRawResource(resourceId);
+        try {
+            mDecoder = BitmapRegionDecoder.newInstance(stream, false);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The resource " + resourceId + " can not be decoded.", e);
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException e) { }
+        }
+        mImageWidth = mDecoder.getWidth();
+        mImageHeight = mDecoder.getHeight();
+        mDecodeRegion = new Rect();
+        mDecodeOptions = new BitmapFactory.Options();
+
+        mExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "StripDecoder");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        mDst = new RectF();
+
+        mRing = new Strip[RING_SIZE];
+        for (int i = 0; i < RING_SIZE; i++) {
+            mRing[i] = new Strip();
+        }
+        mGeneration = 0;
+        mDirection = 1;
+        mFrame = 0;
+    }
+
+    /** Compute the strips layout for the surface size and drop the decoded strips. */
+    @Override
+    protected float onLayout(int surfaceWidth, int surfaceHeight) {
+        synchronized (this) {
+            // The strips decoded for the previous size are useless.
+            mGeneration++;
+            for (Strip strip : mRing) {
+                strip.reset();
+            }
+        }
+        mSampleSize = getSampleSize(mImageHeight, surfaceHeight);
+        mScale = (float) surfaceHeight / (float) mImageHeight;
+        // Round the strip width to a multiple of the sample size for the strips to join exactly once decoded.
+        final int stripWidth = (int) Math.ceil(surfaceWidth / mScale / STRIPS_PER_SCREEN);
+        mStripWidth = Math.min((stripWidth + mSampleSize - 1) / mSampleSize * mSampleSize, mImageWidth);
+        mStripCount = (mImageWidth + mStripWidth - 1) / mStripWidth;
+        return mImageWidth * mScale;
+    }
+
+    @Override
+    protected void onScroll(float distance) {
+        mDirection = (distance < 0) ? -1 : 1;
+    }
+
+    @Override
+    public void draw(Canvas canvas, float interpolation) {
+        mFrame++;
+        super.draw(canvas, interpolation);
+        if (getTileWidth() > 0) {
+            prefetch();
+        }
+    }
+
+    @Override
+    protected void drawTile(Canvas canvas, float left) {
+        final float stripScreenWidth = mStripWidth * mScale;
+        final int first = Math.max((int) Math.floor(-left / stripScreenWidth), 0);
+        final int last = Math.min((int) Math.ceil((mSurfaceWidth - left) / stripScreenWidth), mStripCount) - 1;
+
+        for (int index = first; index <= last; index++) {
+            final Bitmap bitmap = getStrip(index);
+            if (bitmap == null) {
+                // The decoding failed.
+                continue;
+            }
+            final int stripLeft = index * mStripWidth;
+            final int stripRight = Math.min(stripLeft + mStripWidth, mImageWidth);
+            mDst.set(left + stripLeft * mScale, 0, left + stripRight * mScale, mSurfaceHeight);
+            canvas.drawBitmap(bitmap, null, mDst, mPaint);
+        }
+    }
+
+    /** Decode in the background the strips following the visible ones in the scroll direction. */
+    private void prefetch() {
+        final float stripScreenWidth = mStripWidth * mScale;
+        final int first = (int) Math.floor(getScrollX() / stripScreenWidth);
+        final int last = (int) Math.ceil((getScrollX() + mSurfaceWidth) / stripScreenWidth) - 1;
+
+        for (int i = 1; i <= PREFETCH_STRIPS; i++) {
+            final int index = (mDirection > 0) ? last + i : first - i;
+            // The image wraps around.
+            requestStrip(((index % mStripCount) + mStripCount) % mStripCount);
+        }
+    }
+
+    /**
+     * Get a visible strip, decoding it on the calling thread if needed.
+     * Waits for the background decoding if the strip is being decoded.
+     *
+     * @return The decoded strip, or null if it can not be decoded.
+     */
+    private Bitmap getStrip(int index) {
+        final int generation;
+        final Strip strip;
+        synchronized (this) {
+            final Strip found = findStrip(index);
+            if (found != null) {
+                found.mLastUse = mFrame;
+                return awaitStrip(found, index);
+            }
+            strip = acquireStrip(index);
+            if (strip == null) {
+                return null;
+            }
+            generation = mGeneration;
+        }
+        return onStripDecoded(strip, index, generation, decodeStrip(index, mStripWidth, mSampleSize));
+    }
+
+    /** Decode a strip in the background if it is not decoded or being decoded yet. */
+    private void requestStrip(final int index) {
+        final int generation;
+        final int stripWidth = mStripWidth;
+        final int sampleSize = mSampleSize;
+        final Strip strip;
+        synchronized (this) {
+            if (findStrip(index) != null) {
+                return;
+            }
+            strip = acquireStrip(index);
+            if (strip == null) {
+                return;
+            }
+            generation = mGeneration;
+        }
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                onStripDecoded(strip, index, generation, decodeStrip(index, stripWidth, sampleSize));
+            }
+        });
+    }
+
+    /**
+     * Wait until the background thread decoded the strip. Called with the lock held.
+     *
+     * @return The decoded strip, or null if the wait was interrupted or the strip dropped.
+     */
+    private Bitmap awaitStrip(Strip strip, int index) {
+        while (strip.mPending && strip.mIndex == index) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        // The slot may have been given to another strip in the meantime.
+        return (strip.mIndex == index) ? strip.mBitmap : null;
+    }
+
+    /** @return The strip holding or decoding the image strip at the index, null if there is none. Called with the lock held. */
+    private Strip findStrip(int index) {
+        for (Strip strip : mRing) {
+            if (strip.mIndex == index) {
+                return strip;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reuse the least recently drawn strip of the ring to decode the image strip at the index.
+     * The strips drawn at the current frame are kept. Called with the lock held.
+     *
+     * @return The strip, marked as being decoded. Null if all the strips are being decoded or drawn.
+     */
+    private Strip acquireStrip(int index) {
+        Strip oldest = null;
+        for (Strip strip : mRing) {
+            if (!strip.mPending && strip.mLastUse != mFrame && (oldest == null || strip.mLastUse < oldest.mLastUse)) {
+                oldest = strip;
+            }
+        }
+        if (oldest == null) {
+            return null;
+        }
+        // Not drawn at this frame: the drawing thread no longer uses the bitmap.
+        oldest.reset();
+        oldest.mIndex = index;
+        oldest.mPending = true;
+        oldest.mLastUse = mFrame;
+        return oldest;
+    }
+
+    /** @return The decoded strip, or null if it was dropped because the layout changed in the meantime. */
+    private Bitmap onStripDecoded(Strip strip, int index, int generation, Bitmap bitmap) {
+        synchronized (this) {
+            if (generation == mGeneration && strip.mIndex == index) {
+                strip.mBitmap = bitmap;
+                strip.mPending = false;
+                // The drawing thread may wait for this strip.
+                notifyAll();
+                return bitmap;
+            }
+        }
+        if (bitmap != null) {
+            bitmap.recycle();
+        }
+        return null;
+    }
+
+    /**
+     * Decode a strip of the image. The layout is passed by the caller since it may change in the meantime.<br />
+     * The decodes are serialized: the region and the options are shared by the drawing and the background threads.
+     */
+    private Bitmap decodeStrip(int index, int stripWidth, int sampleSize) {
+        final int left = index * stripWidth;
+        synchronized (mDecoder) {
+            mDecodeRegion.set(left, 0, Math.min(left + stripWidth, mImageWidth), mImageHeight);
+            mDecodeOptions.inSampleSize = sampleSize;
+            return mDecoder.decodeRegion(mDecodeRegion, mDecodeOptions);
+        }
+    }
+
+    /** Free the decoded strips and stop the background thread. */
+    @Override
+    public void release() {
+        synchronized (this) {
+            mGeneration++;
+            for (Strip strip : mRing) {
+                strip.reset();
+            }
+        }
+        // Recycle the decoder once the pending strips are decoded.
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (mDecoder) {
+                    mDecoder.recycle();
+                }
+            }
+        });
+        mExecutor.shutdown();
+    }
+
+    /** A slot of the ring. Guarded by the lock of the layer. */
+    private static class Strip {
+
+        /** The index of the image strip, -1 if the slot is free. */
+        int mIndex = -1;
+        Bitmap mBitmap;
+        /** True while the strip is being decoded. */
+        boolean mPending;
+        /** The frame at which the strip was last drawn. */
+        long mLastUse = -1;
+
+        void reset() {
+            if (mBitmap != null) {
+                mBitmap.recycle();
+                mBitmap = null;
+            }
+            mIndex = -1;
+            mPending = false;
+            mLastUse = -1;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.es.engine.graphics.sprite;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+import org.es.engine.graphics.utils.BitmapCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Packs bitmap resources into as few atlas bitmaps as possible, at runtime.<br />
+ * The images are placed on shelves: rows filled from left to right, the tallest images first.
+ * The images added together (usually the frames of an animation) are kept on the same page
+ * so that the animation can be drawn from a single bitmap.
+ *
+ * <pre>
+ * TextureAtlas atlas = new AtlasPacker(resources)
+ *         .add(WALK_LEFT_FRAMES)
+ *         .add(WALK_RIGHT_FRAMES)
+ *         .pack();
+ * Animation walkLeft = atlas.createAnimation(WALK_LEFT_FRAMES, 150, true);
+ * </pre>
+ *
+ * @author Cyril Leroux
+ *         Created on 18/03/14.
+ */
+public class AtlasPacker {
+
+    /** Default maximum size of a page. Supported as a texture size by all devices. */
+    public static final int DEFAULT_MAX_PAGE_SIZE = 1024;
+    /** Space between two images to avoid sampling the neighbours when the images are scaled. */
+    private static final int PADDING = 1;
+
+    private final Resources mResources;
+    private final int mMaxPageSize;
+    private final List<int[]> mGroups;
+
+    public AtlasPacker(Resources resources) {
+        this(resources, DEFAULT_MAX_PAGE_SIZE);
+    }
+
+    /**
+     * @param resources Context resources used to load the bitmaps through the {@link BitmapCache}.
+     * @param maxPageSize The maximum width and height of an atlas page in pixels.
+     */
+    public AtlasPacker(Resources resources, int maxPageSize) {
+        mResources = resources;
+        mMaxPageSize = maxPageSize;
+        mGroups = new ArrayList<>();
+    }
+
+    /**
+     * Add a group of images packed on the same page.
+     *
+     * @param resourceIds The ids of the bitmap resources.
+     */
+    public AtlasPacker add(int... resourceIds) {
+        mGroups.add(resourceIds);
+        return this;
+    }
+
+    /**
+     * Decode the images and draw them in the atlas pages.
+     * The images are loaded through the {@link BitmapCache} and left in it:
+     * they are shared with the other users of the cache and must not be recycled here.
+     *
+     * @return The packed atlas.
+     * @throws IllegalArgumentException if a group does not fit in a page.
+     */
+    public TextureAtlas pack() {
+        final List<Page> pages = new ArrayList<>();
+        final List<Bitmap> bitmaps = new ArrayList<>();
+        final List<Rect> regions = new ArrayList<>();
+        final List<Integer> regionPages = new ArrayList<>();
+        final List<Integer> resourceIds = new ArrayList<>();
+
+        final BitmapCache cache = BitmapCache.getInstance();
+        Page page = null;
+        for (int[] group : mGroups) {
+            final Bitmap[] groupBitmaps = new Bitmap[group.length];
+            for (int i = 0; i < group.length; i++) {
+                groupBitmaps[i] = cache.get(mResources, group[i]);
+            }
+
+            Rect[] groupRegions = (page == null) ? null : page.place(groupBitmaps);
+            if (groupRegions == null) {
+                page = new Page(mMaxPageSize);
+                pages.add(page);
+                groupRegions = page.place(groupBitmaps);
+                if (groupRegions == null) {
+                    throw new IllegalArgumentException("The group " + Arrays.toString(group)
+                            + " does not fit in a page of " + mMaxPageSize + " pixels.");
+                }
+            }
+
+            for (int i = 0; i < group.length; i++) {
+                bitmaps.add(groupBitmaps[i]);
+                regions.add(groupRegions[i]);
+                regionPages.add(pages.size() - 1);
+                resourceIds.add(group[i]);
+            }
+        }
+
+        // Draw the images in the pages.
+        final Bitmap[] pageBitmaps = new Bitmap[pages.size()];
+        final Canvas canvas = new Canvas();
+        for (int p = 0; p < pageBitmaps.length; p++) {
+            pageBitmaps[p] = Bitmap.createBitmap(pages.get(p).getWidth(), pages.get(p).getHeight(), Bitmap.Config.ARGB_8888);
+        }
+        for (int i = 0; i < bitmaps.size(); i++) {
+            final Rect region = regions.get(i);
+            canvas.setBitmap(pageBitmaps[regionPages.get(i)]);
+            canvas.drawBitmap(bitmaps.get(i), region.left, region.top, null);
+        }
+
+        final TextureAtlas atlas = new TextureAtlas(pageBitmaps);
+        for (int i = 0; i < resourceIds.size(); i++) {
+            atlas.addRegion(resourceIds.get(i), regionPages.get(i), regions.get(i));
+        }
+        return atlas;
+    }
+
+    /** The layout of an atlas page being packed. */
+    private static class Page {
+
+        private final int mMaxSize;
+        /** Top of the current shelf. */
+        private int mShelfTop;
+        /** Height of the current shelf: the height of its tallest image. */
+        private int mShelfHeight;
+        /** Left of the next image on the current shelf. */
+        private int mShelfRight;
+        private int mWidth;
+
+        Page(int maxSize) {
+            mMaxSize = maxSize;
+        }
+
+        /**
+         * Place a group of images on the shelves of the page, the tallest first.
+         *
+         * @return The regions of the images, in the order of the group, or null if the group does not fit.
+         * The page is left unchanged in that case.
+         */
+        Rect[] place(final Bitmap[] bitmaps) {
+            final Integer[] order = new Integer[bitmaps.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer lhs, Integer rhs) {
+                    return bitmaps[rhs].getHeight() - bitmaps[lhs].getHeight();
+                }
+            });
+
+            int shelfTop = mShelfTop;
+            int shelfHeight = mShelfHeight;
+            int shelfRight = mShelfRight;
+            int width = mWidth;
+            final Rect[] regions = new Rect[bitmaps.length];
+            for (int index : order) {
+                final int imageWidth = bitmaps[index].getWidth();
+                final int imageHeight = bitmaps[index].getHeight();
+                if (shelfRight + imageWidth > mMaxSize) {
+                    // Open a new shelf below the current one.
+                    shelfTop += shelfHeight + PADDING;
+                    shelfHeight = 0;
+                    shelfRight = 0;
+                }
+                if (imageWidth > mMaxSize || shelfTop + imageHeight > mMaxSize) {
+                    return null;
+                }
+                regions[index] = new Rect(shelfRight, shelfTop, shelfRight + imageWidth, shelfTop + imageHeight);
+                shelfRight += imageWidth + PADDING;
+                shelfHeight = Math.max(shelfHeight, imageHeight);
+                width = Math.max(width, shelfRight - PADDING);
+            }
+
+            mShelfTop = shelfTop;
+            mShelfHeight = shelfHeight;
+            mShelfRight = shelfRight;
+            mWidth = width;
+            return regions;
+        }
+
+        /** @return The width used by the images. */
+        int getWidth() { return Math.max(1, mWidth); }
+
+        /** @return The height used by the images. */
+        int getHeight() { return Math.max(1, mShelfTop + mShelfHeight); }
+    }
+}
@@ -4,20 +4,27 @@ import android.graphics.Canvas;
 import android.graphics.RectF;
 
 import org.es.engine.graphics.animation.Animation;
+import org.es.engine.graphics.animation.AnimationCallback;
+import org.es.engine.graphics.animation.AnimationPlayer;
 import org.es.engine.graphics.utils.DrawingParam;
 
 import java.util.EnumMap;
 
 /**
  * A sprite is a simple animated element.<br />
- * Plays a bitmap list in loop.
+ * Plays a bitmap list in loop.<br />
+ * The animations may be shared by many sprites and are never modified.
+ * Only the playback state belongs to the sprite.
  *
  * @author Cyril Leroux
  *         Created on 25/09/13.
  */
 public class GenericSprite<AnimationId extends Enum<AnimationId>> implements Sprite<AnimationId> {
 
+    /** The animations shared with the other sprites of the same kind. */
     protected final EnumMap<AnimationId, Animation> mAnimations;
+    /** The playback state of the current animation. */
+    protected final AnimationPlayer mPlayer;
     /** The current animation state. */
     protected AnimationId mAnimationId = null;
     protected RectF mBoundingRect;
@@ -27,12 +34,23 @@ public class GenericSprite<AnimationId extends Enum<AnimationId>> implements Spr
 
     /**
      * Sprite constructor.
-     * @param animations
+     * @param animations The animations of the sprite. May be shared with other sprites.
      * @param startAnimationId
      */
     public GenericSprite(EnumMap<AnimationId, Animation> animations, AnimationId startAnimationId) {
+        this(animations, startAnimationId, null);
+    }
+
+    /**
+     * Sprite constructor.
+     * @param animations The animations of the sprite. May be shared with other sprites.
+     * @param startAnimationId
+     * @param callback The object that will be called when the current animation ends.
+     */
+    public GenericSprite(EnumMap<AnimationId, Animation> animations, AnimationId startAnimationId, AnimationCallback callback) {
         mAnimations = animations;
         mAnimationId = startAnimationId;
+        mPlayer = new AnimationPlayer(animations.get(startAnimationId), callback);
         mBoundingRect = new RectF();
     }
 
@@ -60,7 +78,7 @@ public class GenericSprite<AnimationId extends Enum<AnimationId>> implements Spr
      */
     @Override
     public void draw(Canvas canvas, DrawingParam drawingParam) {
-        getAnimation().draw(canvas, mBoundingRect);
+        mPlayer.draw(canvas, mBoundingRect);
     }
 
     /** Set the destination size of the bitmap to draw. */
@@ -86,23 +104,29 @@ public class GenericSprite<AnimationId extends Enum<AnimationId>> implements Spr
     public float getHeight() { return mBoundingRect.height(); }
 
     @Override
-    public void startAnimation() { getAnimation().start(); }
+    public void startAnimation(long time) { mPlayer.start(time); }
 
     @Override
-    public void stopAnimation() { getAnimation().stop(); }
+    public void stopAnimation() { mPlayer.stop(); }
 
     @Override
-    public boolean updateAnimationFrame() { return getAnimation().updateFrame(); }
+    public boolean updateAnimationFrame(long time) { return mPlayer.updateFrame(time); }
 
     @Override
     public AnimationId getAnimationId() { return mAnimationId; }
 
     @Override
-    public void setAnimationId(AnimationId animationId) { mAnimationId = animationId; }
+    public void setAnimationId(AnimationId animationId) {
+        mAnimationId = animationId;
+        mPlayer.setAnimation(mAnimations.get(animationId));
+    }
 
     @Override
     public Animation getAnimation() { return getAnimation(mAnimationId); }
 
     @Override
     public Animation getAnimation(AnimationId animationId) { return mAnimations.get(animationId); }
+
+    @Override
+    public AnimationPlayer getAnimationPlayer() { return mPlayer; }
 }
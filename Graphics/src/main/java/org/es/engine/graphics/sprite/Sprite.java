@@ -1,6 +1,7 @@
 package org.es.engine.graphics.sprite;
 
 import org.es.engine.graphics.animation.Animation;
+import org.es.engine.graphics.animation.AnimationPlayer;
 import org.es.engine.graphics.drawable.DrawableElement;
 
 /**
@@ -23,18 +24,24 @@ public interface Sprite<AnimationId extends Enum<AnimationId>> extends DrawableE
      */
     void setDimensions(float left, float top, float right, float bottom);
 
-    void startAnimation();
+    /** @param time The current game time in milliseconds. */
+    void startAnimation(long time);
 
     void stopAnimation();
 
-    /** Update the current frame of the animation if necessary. */
-    boolean updateAnimationFrame();
+    /**
+     * Update the current frame of the animation if necessary.
+     *
+     * @param time The current game time in milliseconds.
+     */
+    boolean updateAnimationFrame(long time);
 
     /** @return The current animation id. */
     AnimationId getAnimationId();
 
     /**
-     * Set the current animation id.
+     * Set the current animation id.<br />
+     * The playback state is kept: the new animation continues from the current frame.
      *
      * @param animationId The new animation Id.
      */
@@ -45,4 +52,7 @@ public interface Sprite<AnimationId extends Enum<AnimationId>> extends DrawableE
 
     /** @return The animation matching the animation id. */
     Animation getAnimation(AnimationId animationId);
+
+    /** @return The playback state of the current animation. */
+    AnimationPlayer getAnimationPlayer();
 }
@@ -0,0 +1,214 @@
+package org.es.engine.graphics.sprite;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gathers the sprites drawn during a frame and draws all the sprites of a bitmap in a single call.<br />
+ * The sprites are drawn as textured quads with {@link Canvas#drawVertices}: the number of draw calls
+ * depends on the number of bitmaps, not on the number of sprites.<br />
+ * The sprites of a bitmap are drawn in the order they were added. The bitmaps are drawn in the order
+ * of their first sprite: a sprite may be drawn over a sprite of another bitmap added after it.
+ *
+ * <pre>
+ * batch.begin(canvas);
+ * batch.draw(bitmap, src, dst);
+ * ...
+ * batch.end();
+ * </pre>
+ *
+ * Once the batches have grown to the size of the scene, drawing a frame does not allocate.
+ *
+ * @author Cyril Leroux
+ *         Created on 19/03/14.
+ */
+public class SpriteBatch {
+
+    /** Number of quads a batch holds before growing. */
+    private static final int INITIAL_QUAD_CAPACITY = 64;
+    /** The vertex indices are shorts: a call draws at most 16384 quads (65536 vertices). */
+    private static final int MAX_QUAD_COUNT = 16384;
+
+    /** The batches of all the bitmaps drawn so far, reused from frame to frame. */
+    private final List<Batch> mBatches;
+    /** The batches of the current frame, in drawing order. */
+    private final List<Batch> mActiveBatches;
+    private Canvas mCanvas;
+    private int mDrawCallCount;
+    private int mLastDrawCallCount;
+
+    public SpriteBatch() {
+        mBatches = new ArrayList<>();
+        mActiveBatches = new ArrayList<>();
+    }
+
+    /**
+     * Start a frame.
+     *
+     * @param canvas The canvas on which the sprites are drawn by {@link #end()}.
+     */
+    public void begin(Canvas canvas) {
+        if (mCanvas != null) {
+            throw new IllegalStateException("end() must be called before a new begin().");
+        }
+        mCanvas = canvas;
+        mDrawCallCount = 0;
+    }
+
+    /**
+     * Add a sprite to the frame.
+     *
+     * @param bitmap The bitmap holding the sprite.
+     * @param src The region of the bitmap to draw. Null to draw the whole bitmap.
+     * @param dst The destination of the sprite on the canvas.
+     */
+    public void draw(Bitmap bitmap, Rect src, RectF dst) {
+        if (mCanvas == null) {
+            throw new IllegalStateException("begin() must be called before draw().");
+        }
+        final Batch batch = getBatch(bitmap);
+        if (batch.mQuadCount == MAX_QUAD_COUNT) {
+            flush(batch);
+        }
+        if (src == null) {
+            batch.add(0, 0, bitmap.getWidth(), bitmap.getHeight(), dst);
+        } else {
+            batch.add(src.left, src.top, src.right, src.bottom, dst);
+        }
+    }
+
+    /** Draw the sprites added since {@link #begin(Canvas)} and end the frame. */
+    public void end() {
+        final int batchCount = mActiveBatches.size();
+        for (int i = 0; i < batchCount; i++) {
+            flush(mActiveBatches.get(i));
+        }
+        mActiveBatches.clear();
+        mCanvas = null;
+        mLastDrawCallCount = mDrawCallCount;
+    }
+
+    /** @return The number of draw calls of the last frame. */
+    public int getDrawCallCount() { return mLastDrawCallCount; }
+
+    /** Forget the bitmaps drawn so far. To be called when the bitmaps are released. */
+    public void clear() {
+        if (mCanvas != null) {
+            throw new IllegalStateException("Cannot clear the batches during a frame.");
+        }
+        mBatches.clear();
+    }
+
+    private void flush(Batch batch) {
+        if (batch.mQuadCount == 0) {
+            return;
+        }
+        mCanvas.drawVertices(Canvas.VertexMode.TRIANGLES,
+                batch.mQuadCount * 8, batch.mVertices, 0, batch.mTexCoords, 0,
+                null, 0, batch.mIndices, 0, batch.mQuadCount * 6, batch.mPaint);
+        batch.mQuadCount = 0;
+        mDrawCallCount++;
+    }
+
+    /** @return The batch of the bitmap, activated for the current frame. */
+    private Batch getBatch(Bitmap bitmap) {
+        // Few bitmaps per frame: a linear search is faster than hashing.
+        final int activeCount = mActiveBatches.size();
+        for (int i = 0; i < activeCount; i++) {
+            final Batch batch = mActiveBatches.get(i);
+            if (batch.mBitmap == bitmap) {
+                return batch;
+            }
+        }
+
+        Batch batch = null;
+        final int batchCount = mBatches.size();
+        for (int i = 0; i < batchCount; i++) {
+            if (mBatches.get(i).mBitmap == bitmap) {
+                batch = mBatches.get(i);
+                break;
+            }
+        }
+        if (batch == null) {
+            batch = new Batch(bitmap);
+            mBatches.add(batch);
+        }
+        mActiveBatches.add(batch);
+        return batch;
+    }
+
+    /** The quads of a bitmap. */
+    private static class Batch {
+
+        private final Bitmap mBitmap;
+        /** Samples the bitmap at the texture coordinates, expressed in pixels of the bitmap. */
+        private final Paint mPaint;
+        /** 4 vertices per quad, 2 coordinates per vertex. */
+        private float[] mVertices;
+        private float[] mTexCoords;
+        /** 2 triangles per quad. */
+        private short[] mIndices;
+        private int mQuadCount;
+
+        Batch(Bitmap bitmap) {
+            mBitmap = bitmap;
+            mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+            mPaint.setShader(new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+            allocate(INITIAL_QUAD_CAPACITY);
+        }
+
+        private void allocate(int quadCapacity) {
+            final float[] vertices = new float[quadCapacity * 8];
+            final float[] texCoords = new float[quadCapacity * 8];
+            if (mVertices != null) {
+                System.arraycopy(mVertices, 0, vertices, 0, mQuadCount * 8);
+                System.arraycopy(mTexCoords, 0, texCoords, 0, mQuadCount * 8);
+            }
+            mVertices = vertices;
+            mTexCoords = texCoords;
+
+            mIndices = new short[quadCapacity * 6];
+            for (int quad = 0; quad < quadCapacity; quad++) {
+                final int vertex = quad * 4;
+                final int index = quad * 6;
+                mIndices[index]     = (short) vertex;
+                mIndices[index + 1] = (short) (vertex + 1);
+                mIndices[index + 2] = (short) (vertex + 2);
+                mIndices[index + 3] = (short) vertex;
+                mIndices[index + 4] = (short) (vertex + 2);
+                mIndices[index + 5] = (short) (vertex + 3);
+            }
+        }
+
+        /** Add a quad, growing the arrays if needed. */
+        void add(float srcLeft, float srcTop, float srcRight, float srcBottom, RectF dst) {
+            if (mQuadCount * 8 == mVertices.length) {
+                allocate(Math.min(mQuadCount * 2, MAX_QUAD_COUNT));
+            }
+            final int offset = mQuadCount * 8;
+            put(mVertices, offset, dst.left, dst.top, dst.right, dst.bottom);
+            put(mTexCoords, offset, srcLeft, srcTop, srcRight, srcBottom);
+            mQuadCount++;
+        }
+
+        /** Write the corners of a rectangle clockwise from the top left. */
+        private static void put(float[] array, int offset, float left, float top, float right, float bottom) {
+            array[offset]     = left;
+            array[offset + 1] = top;
+            array[offset + 2] = right;
+            array[offset + 3] = top;
+            array[offset + 4] = right;
+            array[offset + 5] = bottom;
+            array[offset + 6] = left;
+            array[offset + 7] = bottom;
+        }
+    }
+}
@@ -2,9 +2,10 @@ package org.es.engine.graphics.sprite;
 
 import android.content.res.Resources;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Rect;
 
+import org.es.engine.graphics.utils.BitmapCache;
+
 /**s
  * @author Cyril Leroux
  *         Created on 09/02/14.
@@ -20,13 +21,14 @@ public class SpriteSheet {
     }
 
     /**
-     * Constructor that will load a bitmap from the resources.
+     * Constructor that will load a bitmap from the resources.<br />
+     * The bitmap is decoded only once and shared through the {@link BitmapCache}.
      *
      * @param resources Context resources used to load sprite sheet bitmap.
      * @param resourceId The id of the sprite sheet resource.
      */
     public SpriteSheet(Resources resources, int resourceId, int columnCount, int rowCount) {
-        this(BitmapFactory.decodeResource(resources, resourceId), columnCount, rowCount);
+        this(BitmapCache.getInstance().get(resources, resourceId), columnCount, rowCount);
     }
 
     private static Rect[][] getRectGrid(final Bitmap spriteSheet, int columnCount, int rowCount) {
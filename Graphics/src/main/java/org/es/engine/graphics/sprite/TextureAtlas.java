@@ -0,0 +1,87 @@
+package org.es.engine.graphics.sprite;
+
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+
+import org.es.engine.graphics.animation.SpriteSheetAnimation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bitmaps packed in atlas pages by an {@link AtlasPacker}.<br />
+ * Each packed resource is found by its id: the page holding it and its region in the page.
+ *
+ * @author Cyril Leroux
+ *         Created on 18/03/14.
+ */
+public class TextureAtlas {
+
+    private final Bitmap[] mPages;
+    private final Map<Integer, Region> mRegions;
+
+    TextureAtlas(Bitmap[] pages) {
+        mPages = pages;
+        mRegions = new HashMap<>();
+    }
+
+    void addRegion(int resourceId, int pageId, Rect rect) {
+        mRegions.put(resourceId, new Region(pageId, rect));
+    }
+
+    /** @return The number of atlas bitmaps. */
+    public int getPageCount() { return mPages.length; }
+
+    /** @return The atlas bitmap holding the resource. */
+    public Bitmap getBitmap(int resourceId) { return mPages[getRegion(resourceId).mPageId]; }
+
+    /** @return The region of the resource in its atlas bitmap. Must not be modified. */
+    public Rect getRect(int resourceId) { return getRegion(resourceId).mRect; }
+
+    /**
+     * Create an animation drawn from the atlas.
+     *
+     * @param resourceIds The frames of the animation. Must have been added to the packer in the same group.
+     * @param frameDuration Frame duration in milliseconds.
+     * @param isLoop True if the animation is supposed to play loop.
+     * @return The animation.
+     */
+    public SpriteSheetAnimation createAnimation(int[] resourceIds, float frameDuration, boolean isLoop) {
+        final Rect[] frames = new Rect[resourceIds.length];
+        final int pageId = getRegion(resourceIds[0]).mPageId;
+        for (int i = 0; i < resourceIds.length; i++) {
+            final Region region = getRegion(resourceIds[i]);
+            if (region.mPageId != pageId) {
+                throw new IllegalArgumentException("The frames are not on the same atlas page.");
+            }
+            frames[i] = region.mRect;
+        }
+        return new SpriteSheetAnimation(mPages[pageId], frames, frameDuration, isLoop);
+    }
+
+    /** Free the atlas bitmaps. The atlas can no longer be drawn. */
+    public void recycle() {
+        for (Bitmap page : mPages) {
+            page.recycle();
+        }
+    }
+
+    private Region getRegion(int resourceId) {
+        final Region region = mRegions.get(resourceId);
+        if (region == null) {
+            throw new IllegalArgumentException("The resource " + resourceId + " is not in the atlas.");
+        }
+        return region;
+    }
+
+    private static class Region {
+
+        private final int mPageId;
+        private final Rect mRect;
+
+        Region(int pageId, Rect rect) {
+            mPageId = pageId;
+            mRect = rect;
+        }
+    }
+}
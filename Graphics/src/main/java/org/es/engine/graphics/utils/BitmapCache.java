@@ -0,0 +1,189 @@
+package org.es.engine.graphics.utils;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of the bitmaps decoded from the resources, shared by the factories.<br />
+ * The bitmaps are keyed by resource id and decode options.
+ * The least recently used bitmaps are evicted when the cache exceeds its memory budget.
+ * Evicted bitmaps are not recycled since the animations created before may still draw them.
+ *
+ * @author Cyril Leroux
+ *         Created on 14/03/14.
+ */
+public class BitmapCache {
+
+    /** Share of the heap used by the default cache. */
+    private static final int DEFAULT_HEAP_DIVIDER = 8;
+
+    private static BitmapCache sInstance = null;
+
+    /** Access ordered: the first entry is the least recently used. */
+    private final LinkedHashMap<Key, Bitmap> mBitmaps;
+    /** Reused to look up the cache without allocating. */
+    private final Key mLookupKey;
+    private long mMaxSize;
+    private long mSize;
+    private int mHitCount;
+    private int mMissCount;
+    private int mEvictionCount;
+
+    /** @param maxSize The memory budget of the cache in bytes. */
+    public BitmapCache(long maxSize) {
+        mBitmaps = new LinkedHashMap<>(16, 0.75f, true);
+        mLookupKey = new Key();
+        mMaxSize = maxSize;
+        mSize = 0;
+    }
+
+    /** @return The cache shared by the application, limited to an eighth of the heap. */
+    public static synchronized BitmapCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new BitmapCache(Runtime.getRuntime().maxMemory() / DEFAULT_HEAP_DIVIDER);
+        }
+        return sInstance;
+    }
+
+    /**
+     * Get a bitmap decoded with the default options.
+     *
+     * @param resources The Resources from which to load the bitmap.
+     * @param resourceId The id of the resource to load.
+     * @return The cached bitmap or the newly decoded one.
+     */
+    public Bitmap get(Resources resources, int resourceId) {
+        return get(resources, resourceId, null);
+    }
+
+    /**
+     * Get a bitmap, decoding it only if it is not in the cache.
+     *
+     * @param resources The Resources from which to load the bitmap.
+     * @param resourceId The id of the resource to load.
+     * @param options The decode options. May be null.
+     * @return The cached bitmap or the newly decoded one.
+     */
+    public synchronized Bitmap get(Resources resources, int resourceId, BitmapFactory.Options options) {
+        mLookupKey.set(resourceId, options);
+        Bitmap bitmap = mBitmaps.get(mLookupKey);
+        if (bitmap != null) {
+            mHitCount++;
+            return bitmap;
+        }
+
+        mMissCount++;
+        bitmap = BitmapFactory.decodeResource(resources, resourceId, options);
+        if (bitmap == null) {
+            return null;
+        }
+        final Key key = new Key();
+        key.set(resourceId, options);
+        mBitmaps.put(key, bitmap);
+        mSize += sizeOf(bitmap);
+        trimToSize(mMaxSize);
+        return bitmap;
+    }
+
+    /** @param maxSize The memory budget of the cache in bytes. */
+    public synchronized void setMaxSize(long maxSize) {
+        mMaxSize = maxSize;
+        trimToSize(maxSize);
+    }
+
+    /** Remove all the bitmaps from the cache. Does not reset the statistics. */
+    public synchronized void clear() {
+        trimToSize(-1);
+    }
+
+    private void trimToSize(long maxSize) {
+        final Iterator<Map.Entry<Key, Bitmap>> iterator = mBitmaps.entrySet().iterator();
+        while (mSize > maxSize && iterator.hasNext()) {
+            mSize -= sizeOf(iterator.next().getValue());
+            iterator.remove();
+            mEvictionCount++;
+        }
+    }
+
+    /** Bitmap.getByteCount() requires API 12. */
+    private static long sizeOf(Bitmap bitmap) {
+        return (long) bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    public synchronized long getMaxSize() { return mMaxSize; }
+
+    /** @return The size of the cached bitmaps in bytes. */
+    public synchronized long getSize() { return mSize; }
+
+    public synchronized int getHitCount() { return mHitCount; }
+
+    public synchronized int getMissCount() { return mMissCount; }
+
+    public synchronized int getEvictionCount() { return mEvictionCount; }
+
+    @Override
+    public synchronized String toString() {
+        final int accessCount = mHitCount + mMissCount;
+        final int hitPercent = (accessCount == 0) ? 0 : 100 * mHitCount / accessCount;
+        return "BitmapCache[size=" + mSize + "/" + mMaxSize +
+                ", hits=" + mHitCount + ", misses=" + mMissCount +
+                ", evictions=" + mEvictionCount + ", hitRate=" + hitPercent + "%]";
+    }
+
+    /** The resource id and the decode options that change the decoded bitmap. */
+    private static class Key {
+
+        private int mResourceId;
+        private int mSampleSize;
+        private Bitmap.Config mConfig;
+        private boolean mScaled;
+        private int mDensity;
+        private int mTargetDensity;
+
+        void set(int resourceId, BitmapFactory.Options options) {
+            mResourceId = resourceId;
+            if (options == null) {
+                mSampleSize = 1;
+                mConfig = null;
+                mScaled = true;
+                mDensity = 0;
+                mTargetDensity = 0;
+            } else {
+                mSampleSize = Math.max(1, options.inSampleSize);
+                mConfig = options.inPreferredConfig;
+                mScaled = options.inScaled;
+                mDensity = options.inDensity;
+                mTargetDensity = options.inTargetDensity;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) { return true; }
+            if (!(o instanceof Key)) { return false; }
+            final Key key = (Key) o;
+            return mResourceId == key.mResourceId &&
+                    mSampleSize == key.mSampleSize &&
+                    mConfig == key.mConfig &&
+                    mScaled == key.mScaled &&
+                    mDensity == key.mDensity &&
+                    mTargetDensity == key.mTargetDensity;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mResourceId;
+            result = 31 * result + mSampleSize;
+            result = 31 * result + (mConfig != null ? mConfig.hashCode() : 0);
+            result = 31 * result + (mScaled ? 1 : 0);
+            result = 31 * result + mDensity;
+            result = 31 * result + mTargetDensity;
+            return result;
+        }
+    }
+}
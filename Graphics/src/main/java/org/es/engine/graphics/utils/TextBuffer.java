@@ -0,0 +1,107 @@
+package org.es.engine.graphics.utils;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * A reusable character buffer to build and draw texts without allocating Strings.<br />
+ * The characters beyond the capacity are dropped.
+ *
+ * @author Cyril Leroux
+ *         Created on 16/03/14.
+ */
+public class TextBuffer {
+
+    private final char[] mChars;
+    private int mLength;
+
+    /** @param capacity The maximum number of characters. */
+    public TextBuffer(int capacity) {
+        mChars = new char[capacity];
+        mLength = 0;
+    }
+
+    /** Remove all the characters. */
+    public TextBuffer clear() {
+        mLength = 0;
+        return this;
+    }
+
+    public TextBuffer append(char c) {
+        if (mLength < mChars.length) {
+            mChars[mLength++] = c;
+        }
+        return this;
+    }
+
+    public TextBuffer append(String text) {
+        final int count = Math.min(text.length(), mChars.length - mLength);
+        text.getChars(0, count, mChars, mLength);
+        mLength += count;
+        return this;
+    }
+
+    /** Append the decimal representation of a number. */
+    public TextBuffer append(long value) {
+        if (value < 0) {
+            append('-');
+        } else {
+            value = -value;
+        }
+        // Work on the negative value to handle Long.MIN_VALUE.
+        final int start = mLength;
+        do {
+            append((char) ('0' - value % 10));
+            value /= 10;
+        } while (value != 0);
+        reverse(start, mLength - 1);
+        return this;
+    }
+
+    private void reverse(int from, int to) {
+        while (from < to) {
+            final char c = mChars[from];
+            mChars[from++] = mChars[to];
+            mChars[to--] = c;
+        }
+    }
+
+    /**
+     * Draw the text.
+     *
+     * @param canvas The canvas on which to draw.
+     * @param x The x-coordinate of the origin of the text.
+     * @param y The y-coordinate of the baseline of the text.
+     * @param paint The paint used for the text.
+     */
+    public void draw(Canvas canvas, float x, float y, Paint paint) {
+        canvas.drawText(mChars, 0, mLength, x, y, paint);
+    }
+
+    /**
+     * @param paint The paint used for the text.
+     * @param outBounds The bounds of the text. Must be allocated by the caller.
+     */
+    public void getTextBounds(Paint paint, Rect outBounds) {
+        paint.getTextBounds(mChars, 0, mLength, outBounds);
+    }
+
+    public int length() { return mLength; }
+
+    /** @return True if both buffers hold the same characters. */
+    public boolean contentEquals(TextBuffer other) {
+        if (mLength != other.mLength) {
+            return false;
+        }
+        for (int i = 0; i < mLength; i++) {
+            if (mChars[i] != other.mChars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() { return new String(mChars, 0, mLength); }
+}
@@ -0,0 +1,61 @@
+package org.es.minigames;
+
+import android.util.Log;
+
+import org.es.engine.gamemechanic.BitmapCanvasSink;
+import org.es.engine.gamemechanic.DrawingThread;
+import org.es.engine.gamemechanic.HeadlessRunner;
+
+/**
+ * Checks that the steady-state drawing of a {@link DrawingThread} does not allocate.<br />
+ * The thread is run headless in a {@link BitmapCanvasSink}. The first frames are ignored to let the thread
+ * create its caches and pools, then the allocations made while drawing the next frames are counted.
+ * Only the drawing is measured: the simulation ticks may allocate.<br />
+ * Run by {@link DrawAllocationTest} to catch regressions.
+ *
+ * @author Cyril Leroux
+ *         Created on 16/03/14.
+ */
+public class DrawAllocationCheck {
+
+    private static final String TAG = "DrawAllocationCheck";
+
+    /** Default number of frames ignored before counting the allocations. */
+    public static final int DEFAULT_WARM_UP_FRAMES = 60;
+    /** Default number of frames on which the allocations are counted. */
+    public static final int DEFAULT_FRAME_COUNT = 300;
+
+    /**
+     * Run the check with the default number of frames.
+     *
+     * @see #check(DrawingThread, int, int, int, int)
+     */
+    public static void check(DrawingThread thread, int width, int height) {
+        check(thread, width, height, DEFAULT_WARM_UP_FRAMES, DEFAULT_FRAME_COUNT);
+    }
+
+    /**
+     * @param thread The thread to check. Must not have been started.
+     * @param width The width of the surface in pixels.
+     * @param height The height of the surface in pixels.
+     * @param warmUpFrames The number of frames ignored before counting.
+     * @param frameCount The number of frames on which the allocations are counted.
+     * @throws AssertionError if the drawing allocated.
+     */
+    public static void check(DrawingThread thread, int width, int height, int warmUpFrames, int frameCount) {
+        final HeadlessRunner runner = new HeadlessRunner(thread, new BitmapCanvasSink(width, height));
+        final int allocationCount;
+        try {
+            thread.setSurfaceSize(width, height);
+            runner.run(warmUpFrames);
+            allocationCount = runner.countDrawAllocations(frameCount);
+        } finally {
+            runner.stop();
+        }
+        if (allocationCount > 0) {
+            throw new AssertionError(thread.getClass().getSimpleName() + ": " + allocationCount
+                    + " allocations while drawing " + frameCount + " frames.");
+        }
+        Log.d(TAG, thread.getClass().getSimpleName() + ": no allocation while drawing " + frameCount + " frames.");
+    }
+}
@@ -0,0 +1,37 @@
+package org.es.minigames;
+
+import android.content.Context;
+import android.test.InstrumentationTestCase;
+
+import org.es.minigames.platform.PlatformThread;
+import org.es.minigames.scrollingbackgrounds.ScrollingBgDrawingThread;
+import org.es.minigames.towerdefense.TowerDefenseThread;
+
+/**
+ * Fails when the steady-state drawing of a game allocates (see {@link DrawAllocationCheck}).<br />
+ * The games are run headless: no surface is needed.
+ *
+ * @author Cyril Leroux
+ *         Created on 24/03/14.
+ */
+public class DrawAllocationTest extends InstrumentationTestCase {
+
+    private static final int SURFACE_WIDTH = 1280;
+    private static final int SURFACE_HEIGHT = 720;
+
+    private Context getTargetContext() {
+        return getInstrumentation().getTargetContext();
+    }
+
+    public void testTowerDefenseDrawDoesNotAllocate() {
+        DrawAllocationCheck.check(new TowerDefenseThread(null, getTargetContext()), SURFACE_WIDTH, SURFACE_HEIGHT);
+    }
+
+    public void testPlatformDrawDoesNotAllocate() {
+        DrawAllocationCheck.check(new PlatformThread(null, getTargetContext()), SURFACE_WIDTH, SURFACE_HEIGHT);
+    }
+
+    public void testScrollingBackgroundDrawDoesNotAllocate() {
+        DrawAllocationCheck.check(new ScrollingBgDrawingThread(null, getTargetContext()), SURFACE_WIDTH, SURFACE_HEIGHT);
+    }
+}
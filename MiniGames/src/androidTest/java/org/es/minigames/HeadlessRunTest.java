@@ -0,0 +1,119 @@
+package org.es.minigames;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.test.InstrumentationTestCase;
+import android.util.Log;
+
+import org.es.engine.gamemechanic.BitmapCanvasSink;
+import org.es.engine.gamemechanic.DrawingThread;
+import org.es.engine.gamemechanic.HeadlessRunner;
+import org.es.engine.gamemechanic.UserEvent;
+import org.es.minigames.platform.PlatformThread;
+import org.es.minigames.scrollingbackgrounds.ScrollingBgDrawingThread;
+import org.es.minigames.towerdefense.TowerDefenseThread;
+
+import java.util.Arrays;
+
+/**
+ * Runs the games headless as fast as possible and logs the number of ticks per second.<br />
+ * The entry point of the fast-forward and performance runs.
+ * Checks that the run advanced the game time, drew the frames and changed what is on screen.
+ *
+ * @author Cyril Leroux
+ *         Created on 24/03/14.
+ */
+public class HeadlessRunTest extends InstrumentationTestCase {
+
+    private static final String TAG = "HeadlessRunTest";
+
+    private static final int SURFACE_WIDTH = 1280;
+    private static final int SURFACE_HEIGHT = 720;
+    private static final int TICK_COUNT = 1000;
+
+    private Context getTargetContext() {
+        return getInstrumentation().getTargetContext();
+    }
+
+    public void testTowerDefenseRun() {
+        // The enemies walk across the battleground on their own.
+        run(new TowerDefenseThread(null, getTargetContext()));
+    }
+
+    public void testPlatformRun() {
+        final PlatformThread thread = new PlatformThread(null, getTargetContext());
+        // The hero stands still until a key is pressed.
+        thread.addUserEvent(UserEvent.KEYCODE_RIGHT, UserEvent.ACTION_DOWN);
+        run(thread);
+    }
+
+    public void testScrollingBackgroundRun() {
+        run(new ScrollingBgDrawingThread(null, getTargetContext()));
+    }
+
+    private static void run(DrawingThread thread) {
+        final CountingCanvasSink sink = new CountingCanvasSink(SURFACE_WIDTH, SURFACE_HEIGHT);
+        final HeadlessRunner runner = new HeadlessRunner(thread, sink);
+        try {
+            thread.setSurfaceSize(SURFACE_WIDTH, SURFACE_HEIGHT);
+            final long stepDuration = thread.getStepDuration();
+            final long startTime = runner.getClock().nanoTime();
+
+            runner.run(1);
+            final Bitmap firstFrame = sink.getBitmap().copy(Bitmap.Config.ARGB_8888, false);
+            final HeadlessRunner.Result result = runner.run(TICK_COUNT - 1);
+            Log.i(TAG, thread.getClass().getSimpleName() + ": " + result);
+
+            assertEquals("Game time", TICK_COUNT * stepDuration, runner.getClock().nanoTime() - startTime);
+            if (thread.isDirtyRegionEnabled()) {
+                // The ticks which change nothing on screen are not drawn.
+                assertTrue("Frame count", sink.getFrameCount() > 1 && sink.getFrameCount() <= TICK_COUNT);
+            } else {
+                assertEquals("Frame count", TICK_COUNT, sink.getFrameCount());
+            }
+            assertTrue("Ticks per second", result.getTicksPerSecond() > 0);
+            assertFalse("The last frame is the first one", sameFrame(firstFrame, sink.getBitmap()));
+            firstFrame.recycle();
+        } finally {
+            runner.stop();
+        }
+    }
+
+    /** @return True if both bitmaps have the same pixels. Compared row by row not to copy whole frames. */
+    private static boolean sameFrame(Bitmap lhs, Bitmap rhs) {
+        final int width = lhs.getWidth();
+        final int height = lhs.getHeight();
+        if (width != rhs.getWidth() || height != rhs.getHeight()) {
+            return false;
+        }
+        final int[] lhsRow = new int[width];
+        final int[] rhsRow = new int[width];
+        for (int y = 0; y < height; y++) {
+            lhs.getPixels(lhsRow, 0, width, 0, y, width, 1);
+            rhs.getPixels(rhsRow, 0, width, 0, y, width, 1);
+            if (!Arrays.equals(lhsRow, rhsRow)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Draws the frames in a bitmap and counts them. */
+    private static class CountingCanvasSink extends BitmapCanvasSink {
+
+        private int mFrameCount = 0;
+
+        CountingCanvasSink(int width, int height) {
+            super(width, height);
+        }
+
+        @Override
+        public void unlockCanvasAndPost(Canvas canvas) {
+            super.unlockCanvasAndPost(canvas);
+            mFrameCount++;
+        }
+
+        int getFrameCount() { return mFrameCount; }
+    }
+}
@@ -7,9 +7,11 @@ import android.view.SurfaceHolder;
 
 import org.es.engine.gamemechanic.DrawingThread;
 import org.es.engine.gamemechanic.UserEvent;
+import org.es.engine.graphics.animation.AnimationTicker;
+import org.es.engine.graphics.parallax.ParallaxEngine;
+import org.es.engine.graphics.parallax.StreamingBitmapLayer;
 import org.es.minigames.R;
 import org.es.minigames.platform.drawable.Hero;
-import org.es.minigames.scrollingbackgrounds.drawable.Background;
 
 /**
  * @author Cyril Leroux
@@ -18,32 +20,40 @@ import org.es.minigames.scrollingbackgrounds.drawable.Background;
 public class PlatformThread extends DrawingThread {
 
     private static final String TAG = "PlatformThread";
-    // Background elements
-    private Background mFarBackground;
+    /** Number of simulation ticks per second. */
+    private static final int TICK_RATE = 30;
+    // Background layers, scrolled at the speed of the hero
+    private final ParallaxEngine mParallax;
     // Hero
     private Hero mHero;
+    /** The game time of the current tick, read once per tick. */
+    private final AnimationTicker mAnimationTicker = new AnimationTicker();
 
     public PlatformThread(SurfaceHolder surfaceHolder, Context context) {
         super(surfaceHolder, context);
 
-        mFarBackground = new Background(mResources, R.drawable.background_far);
-        mHero = new Hero(mResources, mFarBackground);
+        mParallax = new ParallaxEngine()
+                .addLayer(new StreamingBitmapLayer(mResources, R.drawable.background_far, 1f));
+        mHero = new Hero(mResources, mParallax);
+        setTickRate(TICK_RATE);
     }
 
     @Override
     protected void updateSurfaceSize(int surfaceWidth, int surfaceHeight) {
 
-        mFarBackground.onUpdateSurfaceSize(surfaceWidth, surfaceHeight);
+        mParallax.onUpdateSurfaceSize(surfaceWidth, surfaceHeight);
         mHero.onUpdateSurfaceSize(surfaceWidth, surfaceHeight);
     }
 
     @Override
     protected boolean update() {
 
-        while (!mEventQueue.isEmpty()) {
-            processEvent(mEventQueue.poll());
-        }
-        return mHero.update();
+        mAnimationTicker.tick(getClock().currentTimeMillis());
+        processEvents();
+        final boolean updated = mHero.update(mAnimationTicker.getTime());
+        // Scrolled at the speed set by the hero during this tick.
+        mParallax.update(mAnimationTicker.getTime());
+        return updated;
     }
 
     @Override
@@ -54,10 +64,10 @@ public class PlatformThread extends DrawingThread {
         Log.d(TAG, "UserEvent : " + action);
 
         if (keyCode == UserEvent.KEYCODE_LEFT && action == UserEvent.ACTION_DOWN) {
-            mHero.walkLeft();
+            mHero.walkLeft(mAnimationTicker.getTime());
 
         } else if (keyCode == UserEvent.KEYCODE_RIGHT && action == UserEvent.ACTION_DOWN) {
-            mHero.walkRight();
+            mHero.walkRight(mAnimationTicker.getTime());
 
         } else if (action == UserEvent.ACTION_UP) {
             mHero.stopAnimation();
@@ -65,9 +75,19 @@ public class PlatformThread extends DrawingThread {
     }
 
     @Override
-    protected void doDraw(Canvas canvas) {
+    protected void onLoopStopped() {
+        mParallax.release();
+    }
+
+    @Override
+    protected void doDraw(Canvas canvas, float interpolation) {
 
-        mFarBackground.draw(canvas, null);
+        mParallax.draw(canvas, interpolation);
         mHero.draw(canvas, null);
     }
+
+    @Override
+    protected void doDraw(Canvas canvas) {
+        doDraw(canvas, 1f);
+    }
 }
@@ -39,21 +39,21 @@ public class PlatformView extends DrawingView {
             case MotionEvent.ACTION_DOWN:
                 final int keyCodeDown = (event.getX() > getCenterX()) ?
                         UserEvent.KEYCODE_RIGHT : UserEvent.KEYCODE_LEFT;
-                mThread.addUserEvent(new UserEvent(keyCodeDown, UserEvent.ACTION_DOWN));
+                mThread.addUserEvent(keyCodeDown, UserEvent.ACTION_DOWN);
                 return true;
 
             case MotionEvent.ACTION_UP:
                 final int keyCodeUp = (event.getX() > getCenterX()) ?
                         UserEvent.KEYCODE_RIGHT : UserEvent.KEYCODE_LEFT;
-                mThread.addUserEvent(new UserEvent(keyCodeUp, UserEvent.ACTION_UP));
+                mThread.addUserEvent(keyCodeUp, UserEvent.ACTION_UP);
                 return true;
 
             case MotionEvent.ACTION_POINTER_DOWN:
-                mThread.addUserEvent(new UserEvent(UserEvent.KEYCODE_UP, UserEvent.ACTION_DOWN));
+                mThread.addUserEvent(UserEvent.KEYCODE_UP, UserEvent.ACTION_DOWN);
                 return true;
 
             case MotionEvent.ACTION_POINTER_UP:
-                mThread.addUserEvent(new UserEvent(UserEvent.KEYCODE_UP, UserEvent.ACTION_UP));
+                mThread.addUserEvent(UserEvent.KEYCODE_UP, UserEvent.ACTION_UP);
                 return true;
 
 
@@ -73,22 +73,22 @@ public class PlatformView extends DrawingView {
         Log.d(TAG, "dispatchTouchEvent action : " + action);
 
         if (action == KeyEvent.ACTION_DOWN && keyCode == KeyEvent.KEYCODE_DPAD_LEFT) {
-            mThread.addUserEvent(new UserEvent(UserEvent.KEYCODE_LEFT, UserEvent.ACTION_DOWN));
+            mThread.addUserEvent(UserEvent.KEYCODE_LEFT, UserEvent.ACTION_DOWN);
 
         } else if (action == KeyEvent.ACTION_UP && keyCode == KeyEvent.KEYCODE_DPAD_LEFT) {
-            mThread.addUserEvent(new UserEvent(UserEvent.KEYCODE_LEFT, UserEvent.ACTION_UP));
+            mThread.addUserEvent(UserEvent.KEYCODE_LEFT, UserEvent.ACTION_UP);
 
         } else if (action == KeyEvent.ACTION_DOWN && keyCode == KeyEvent.KEYCODE_DPAD_RIGHT) {
-            mThread.addUserEvent(new UserEvent(UserEvent.KEYCODE_RIGHT, UserEvent.ACTION_DOWN));
+            mThread.addUserEvent(UserEvent.KEYCODE_RIGHT, UserEvent.ACTION_DOWN);
 
         } else if (action == KeyEvent.ACTION_UP && keyCode == KeyEvent.KEYCODE_DPAD_RIGHT) {
-            mThread.addUserEvent(new UserEvent(UserEvent.KEYCODE_RIGHT, UserEvent.ACTION_UP));
+            mThread.addUserEvent(UserEvent.KEYCODE_RIGHT, UserEvent.ACTION_UP);
 
         } else if (action == KeyEvent.ACTION_DOWN && keyCode == KeyEvent.KEYCODE_DPAD_UP) {
-            mThread.addUserEvent(new UserEvent(UserEvent.KEYCODE_RIGHT, UserEvent.ACTION_DOWN));
+            mThread.addUserEvent(UserEvent.KEYCODE_RIGHT, UserEvent.ACTION_DOWN);
 
         } else if (action == KeyEvent.ACTION_UP && keyCode == KeyEvent.KEYCODE_DPAD_UP) {
-            mThread.addUserEvent(new UserEvent(UserEvent.KEYCODE_RIGHT, UserEvent.ACTION_UP));
+            mThread.addUserEvent(UserEvent.KEYCODE_RIGHT, UserEvent.ACTION_UP);
         }
 
         return super.dispatchKeyEvent(event);
@@ -6,14 +6,15 @@ import android.util.Log;
 
 import org.es.engine.graphics.animation.Animation;
 import org.es.engine.graphics.animation.AnimationCallback;
-import org.es.engine.graphics.animation.BitmapAnimation;
 import org.es.engine.graphics.drawable.DrawableElement;
+import org.es.engine.graphics.parallax.ParallaxEngine;
+import org.es.engine.graphics.sprite.AtlasPacker;
 import org.es.engine.graphics.sprite.GenericSprite;
 import org.es.engine.graphics.sprite.Sprite;
+import org.es.engine.graphics.sprite.TextureAtlas;
 import org.es.engine.graphics.utils.DrawingParam;
 import org.es.minigames.BuildConfig;
 import org.es.minigames.R;
-import org.es.minigames.scrollingbackgrounds.drawable.Background;
 
 import java.util.EnumMap;
 
@@ -37,59 +38,64 @@ public class Hero implements DrawableElement, AnimationCallback {
     private static final float WALKING_SPEED = 200;
     /** Max speed of the character in pixels per second. */
     private static final float MAX_SPEED = 800;
+    private static final int[] WALK_LEFT_FRAMES = new int[]{
+            R.drawable.hero_left_1,
+            R.drawable.hero_left_2,
+            R.drawable.hero_left_3,
+            R.drawable.hero_left_4,
+            R.drawable.hero_left_5,
+            R.drawable.hero_left_6,
+    };
+    private static final int[] WALK_RIGHT_FRAMES = new int[]{
+            R.drawable.hero_right_1,
+            R.drawable.hero_right_2,
+            R.drawable.hero_right_3,
+            R.drawable.hero_right_4,
+            R.drawable.hero_right_5,
+            R.drawable.hero_right_6,
+    };
     private final Sprite<Hero.AnimId> mSprite;
-    private final Background mBackground;
+    private final ParallaxEngine mParallax;
     //    private float mVelocityX = 0;
     //    private float mVelocityY = 0;
     /** Character current speed in pixels per second. */
     private float mCurrentSpeed = 0;
-    public Hero(Resources resources, Background background) {
-        mSprite = new GenericSprite(getAnimations(resources, this), AnimId.WALK_LEFT);
+    public Hero(Resources resources, ParallaxEngine parallax) {
+        mSprite = new GenericSprite(getAnimations(resources), AnimId.WALK_LEFT, this);
         stopAnimation();
         mSprite.setDimensions(0, 0, 44, 68);
-        mBackground = background;
+        mParallax = parallax;
 
         mState = STATE_WALKING;
     }
 
-    private static EnumMap<AnimId, Animation> getAnimations(Resources resources, AnimationCallback callback) {
+    /** The frames of both walks are packed in a single atlas bitmap. */
+    private static EnumMap<AnimId, Animation> getAnimations(Resources resources) {
 
-        EnumMap<AnimId, Animation> animations = new EnumMap<>(AnimId.class);
+        final TextureAtlas atlas = new AtlasPacker(resources)
+                .add(WALK_LEFT_FRAMES)
+                .add(WALK_RIGHT_FRAMES)
+                .pack();
 
-        animations.put(AnimId.WALK_LEFT, new BitmapAnimation(resources,
-                new int[]{
-                        R.drawable.hero_left_1,
-                        R.drawable.hero_left_2,
-                        R.drawable.hero_left_3,
-                        R.drawable.hero_left_4,
-                        R.drawable.hero_left_5,
-                        R.drawable.hero_left_6,
-                }, 150, true, callback));
-
-        animations.put(AnimId.WALK_RIGHT, new BitmapAnimation(resources,
-                new int[]{
-                        R.drawable.hero_right_1,
-                        R.drawable.hero_right_2,
-                        R.drawable.hero_right_3,
-                        R.drawable.hero_right_4,
-                        R.drawable.hero_right_5,
-                        R.drawable.hero_right_6,
-                }, 150, true, callback));
+        EnumMap<AnimId, Animation> animations = new EnumMap<>(AnimId.class);
+        animations.put(AnimId.WALK_LEFT, atlas.createAnimation(WALK_LEFT_FRAMES, 150, true));
+        animations.put(AnimId.WALK_RIGHT, atlas.createAnimation(WALK_RIGHT_FRAMES, 150, true));
         return animations;
     }
 
-    public boolean update() {
+    /** @param time The current game time in milliseconds. */
+    public boolean update(long time) {
 
-        updateSpeed();
-        boolean updated = mSprite.updateAnimationFrame();
+        updateSpeed(time);
+        boolean updated = mSprite.updateAnimationFrame(time);
         updated |= updatePosition();
 
         return updated;
     }
 
-    private void updateSpeed() {
+    private void updateSpeed(long time) {
         if (mState == STATE_WALKING) {
-            final float actionElapsedTime = Math.min(System.currentTimeMillis() - getStartTime(), REACH_MAX_SPEED_DELAY);
+            final float actionElapsedTime = Math.min(time - getStartTime(), REACH_MAX_SPEED_DELAY);
             if (actionElapsedTime > START_ACCELERATION_DELAY) {
                 // speed that will be added to the standard walking speed
                 final float extraSpeed = actionElapsedTime * (MAX_SPEED - WALKING_SPEED) / REACH_MAX_SPEED_DELAY;
@@ -104,13 +110,13 @@ public class Hero implements DrawableElement, AnimationCallback {
     private boolean updatePosition() {
         if (isAnimationRunning()) {
             if (AnimId.WALK_LEFT.equals(getAnimationId())) {
-                mBackground.setScrollSpeed(mCurrentSpeed, 1000);
+                mParallax.setScrollSpeed(-1 * mCurrentSpeed);
 
             } else if (AnimId.WALK_RIGHT.equals(getAnimationId())) {
-                mBackground.setScrollSpeed(-1 * mCurrentSpeed, 1000);
+                mParallax.setScrollSpeed(mCurrentSpeed);
             }
         } else {
-            mBackground.setScrollSpeed(0, 1000);
+            mParallax.setScrollSpeed(0);
             return false;
         }
         return true;
@@ -147,7 +153,7 @@ public class Hero implements DrawableElement, AnimationCallback {
         mState = STATE_STATIC;
     }
 
-    private void startAnimation() { mSprite.startAnimation(); }
+    private void startAnimation(long time) { mSprite.startAnimation(time); }
 
     public void stopAnimation() { mSprite.stopAnimation(); }
 
@@ -155,9 +161,9 @@ public class Hero implements DrawableElement, AnimationCallback {
 
     private void setAnimationId(AnimId animationId) { mSprite.setAnimationId(animationId); }
 
-    private boolean isAnimationRunning() { return mSprite.getAnimation().isRunning(); }
+    private boolean isAnimationRunning() { return mSprite.getAnimationPlayer().isRunning(); }
 
-    private long getStartTime() { return mSprite.getAnimation().getStartTime(); }
+    private long getStartTime() { return mSprite.getAnimationPlayer().getStartTime(); }
 
     /** Change the animation if necessary. */
     protected void switchState(AnimId state) {
@@ -167,21 +173,23 @@ public class Hero implements DrawableElement, AnimationCallback {
         setAnimationId(state);
     }
 
-    public void walkLeft() {
+    /** @param time The current game time in milliseconds. */
+    public void walkLeft(long time) {
         mState = STATE_WALKING;
         switchState(AnimId.WALK_LEFT);
         if (!isAnimationRunning()) {
             mCurrentSpeed = WALKING_SPEED;
-            startAnimation();
+            startAnimation(time);
         }
     }
 
-    public void walkRight() {
+    /** @param time The current game time in milliseconds. */
+    public void walkRight(long time) {
         mState = STATE_WALKING;
         switchState(AnimId.WALK_RIGHT);
         if (!isAnimationRunning()) {
             mCurrentSpeed = WALKING_SPEED;
-            startAnimation();
+            startAnimation(time);
         }
     }
 
@@ -1,13 +1,14 @@
 package org.es.minigames.scrollingbackgrounds;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.view.SurfaceHolder;
 
 import org.es.engine.gamemechanic.DrawingThread;
 import org.es.engine.gamemechanic.UserEvent;
+import org.es.engine.graphics.animation.AnimationTicker;
+import org.es.engine.graphics.parallax.ParallaxEngine;
+import org.es.engine.graphics.parallax.StreamingBitmapLayer;
 import org.es.minigames.R;
 
 /**
@@ -16,81 +17,57 @@ import org.es.minigames.R;
  */
 public class ScrollingBgDrawingThread extends DrawingThread {
 
-    private Bitmap mFarBackground = null;
-    private Bitmap mNearBackground = null;
-    // right to left scroll tracker for near and far BG
-    private int mFarBg1Left = 0;
-    private int mFarBg2Left = 0;
-    private int mNearBg1Left = 0;
-    private int mNearBg2Left = 0;
+    /** The speed of the near background in pixels per second: 16 pixels per frame at the default 20 fps. */
+    private static final float SCROLL_SPEED = 320f;
+    /** The far background scrolls four times slower than the near one. */
+    private static final float FAR_SPEED_FACTOR = 0.25f;
+    private static final float NEAR_SPEED_FACTOR = 1f;
+
+    private final ParallaxEngine mParallax;
+    /** The game time of the current tick, read once per tick. */
+    private final AnimationTicker mAnimationTicker = new AnimationTicker();
 
     public ScrollingBgDrawingThread(SurfaceHolder surfaceHolder, Context context) {
         super(surfaceHolder, context);
 
-        // two background since we want them moving at different speeds
-        BitmapFactory.Options bmpOptions = new BitmapFactory.Options();
-        bmpOptions.inSampleSize = 2;
-        mFarBackground = BitmapFactory.decodeResource(mResources, R.drawable.background_far, bmpOptions);
-        mNearBackground = BitmapFactory.decodeResource(mResources, R.drawable.background_near, bmpOptions);
+        // two backgrounds since we want them moving at different speeds
+        // Streamed by strips: only the part of the images near the screen is decoded.
+        mParallax = new ParallaxEngine()
+                .addLayer(new StreamingBitmapLayer(mResources, R.drawable.background_far, FAR_SPEED_FACTOR))
+                .addLayer(new StreamingBitmapLayer(mResources, R.drawable.background_near, NEAR_SPEED_FACTOR));
+        mParallax.setScrollSpeed(SCROLL_SPEED);
     }
 
     @Override
     protected void updateSurfaceSize(int surfaceWidth, int surfaceHeight) {
-        
-        // Resize the background image
-        // Image is larger than the screen => adapt height
-        float farBgCoef = (float) surfaceHeight / (float) mFarBackground.getHeight();
-        float nearBgCoef = (float) surfaceHeight / (float) mNearBackground.getHeight();
-        float newFarBgWidth = mFarBackground.getWidth() * farBgCoef;
-        float newNearBgWidth = mNearBackground.getWidth() * nearBgCoef;
-
-        mFarBackground = Bitmap.createScaledBitmap(mFarBackground, (int) newFarBgWidth, surfaceHeight, true);
-        mNearBackground = Bitmap.createScaledBitmap(mNearBackground, (int) newNearBgWidth, surfaceHeight, true);
+        mParallax.onUpdateSurfaceSize(surfaceWidth, surfaceHeight);
     }
 
-    /** Update data. */
+    /** Update data. The backgrounds scroll continuously: a new frame is always needed. */
     protected boolean update() {
-
-        // decrement the far and near backgrounds
-        mFarBg1Left -= 4;
-        mNearBg1Left -= 16;
-
-        int farBg1Right = mFarBg1Left + mFarBackground.getWidth();
-        int nearBg1Right = mNearBg1Left + mNearBackground.getWidth();
-
-        // if we have scrolled all the way, reset to start
-        if (farBg1Right <= 0) {
-            mFarBg1Left = 0;
-        }
-        if (nearBg1Right <= 0) {
-            mNearBg1Left = 0;
-        }
-
-        // calculate the wrap factor for matching image draw
-        mFarBg2Left = mFarBg1Left + mFarBackground.getWidth();
-        mNearBg2Left = mNearBg1Left + mNearBackground.getWidth();
-
+        mAnimationTicker.tick(getClock().currentTimeMillis());
+        mParallax.update(mAnimationTicker.getTime());
         return true;
     }
 
     @Override
     protected void processEvent(UserEvent event) { }
 
+    @Override
+    protected void onLoopStopped() {
+        mParallax.release();
+    }
+
     /**
      * Draws current state of the game Canvas.
      */
-    protected void doDraw(Canvas canvas) {
-
-        canvas.drawBitmap(mFarBackground, mFarBg1Left, 0, null);
-        if (mFarBg2Left <= canvas.getWidth()) {
-            // Draw second background only if necessary
-            canvas.drawBitmap(mFarBackground, mFarBg2Left, 0, null);
-        }
+    @Override
+    protected void doDraw(Canvas canvas, float interpolation) {
+        mParallax.draw(canvas, interpolation);
+    }
 
-        canvas.drawBitmap(mNearBackground, mNearBg1Left, 0, null);
-        if (mNearBg2Left <= canvas.getWidth()) {
-            // Draw second only if necessary
-            canvas.drawBitmap(mNearBackground, mNearBg2Left, 0, null);
-        }
+    @Override
+    protected void doDraw(Canvas canvas) {
+        doDraw(canvas, 1f);
     }
 }
\ No newline at end of file
@@ -2,23 +2,70 @@ package org.es.minigames.towerdefense;
 
 import android.content.Context;
 import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Build;
+import android.util.Log;
 import android.view.SurfaceHolder;
 
-import org.es.engine.gamemechanic.DrawingThread;
+import org.es.engine.gamemechanic.SplitDrawingThread;
 import org.es.engine.gamemechanic.UserEvent;
+import org.es.engine.gamemechanic.metrics.FrameMetricsSnapshot;
+import org.es.engine.gamemechanic.timing.ChoreographerTickSource;
+import org.es.engine.gamemechanic.timing.FrameRateGovernor;
+import org.es.engine.graphics.animation.AnimationTicker;
+import org.es.engine.graphics.utils.BitmapCache;
+import org.es.minigames.BuildConfig;
 import org.es.minigames.towerdefense.process.GameMgr;
+import org.es.minigames.towerdefense.process.GameSnapshot;
+import org.es.minigames.towerdefense.unit.EnemyFactory;
+import org.es.minigames.towerdefense.unit.TowerFactory;
 
 /**
  * @author Cyril Leroux
  *         Created on 30/01/14.
  */
-public class TowerDefenseThread extends DrawingThread {
+public class TowerDefenseThread extends SplitDrawingThread<GameSnapshot> implements FrameRateGovernor.Listener {
+
+    private static final String TAG = "TowerDefenseThread";
+    /** The frame rates the governor chooses from. */
+    private static final int[] FRAME_RATES = new int[] { 30, 45, 60 };
+    /**
+     * The frame rates the governor chooses from when the frames follow the display refresh.<br />
+     * Only the divisors of a 60 Hz refresh rate: a 45 fps tick would alternate between one and two vsyncs.
+     */
+    private static final int[] VSYNC_FRAME_RATES = new int[] { 30, 60 };
+    /** Number of ticks between two logs of the frame metrics. */
+    private static final int METRICS_LOG_PERIOD = GameMgr.TICK_RATE * 10;
 
     private final GameMgr mGameMgr;
+    private final FrameMetricsSnapshot mMetricsSnapshot;
+    /** The area of the screen that changed in the frame being prepared. */
+    private final Rect mDirtyRect;
+    /** The game time of the current tick, read once per tick. */
+    private final AnimationTicker mAnimationTicker;
+    private int mTicksBeforeMetricsLog;
 
     public TowerDefenseThread(SurfaceHolder surfaceHolder, Context context) {
         super(surfaceHolder, context);
         mGameMgr = new GameMgr(context);
+        mMetricsSnapshot = new FrameMetricsSnapshot();
+        mTicksBeforeMetricsLog = METRICS_LOG_PERIOD;
+        mDirtyRect = new Rect();
+        mAnimationTicker = new AnimationTicker();
+        setTickRate(GameMgr.TICK_RATE);
+        setRenderThreadEnabled(true);
+        // Most of the screen is the static battleground.
+        setDirtyRegionEnabled(true);
+        // Checked here: the tick source can not be loaded before API 16.
+        final boolean vsync = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+        if (vsync) {
+            // Align the frames on the display refresh.
+            setTickSource(new ChoreographerTickSource());
+        }
+
+        FrameRateGovernor governor = new FrameRateGovernor(vsync ? VSYNC_FRAME_RATES : FRAME_RATES);
+        governor.setListener(this);
+        setFrameRateGovernor(governor);
     }
 
     @Override
@@ -28,13 +75,26 @@ public class TowerDefenseThread extends DrawingThread {
 
     @Override
     protected boolean update() {
-        while (!mEventQueue.isEmpty()) {
-            processEvent(mEventQueue.poll());
+        mAnimationTicker.tick(getClock().currentTimeMillis());
+        processEvents();
+        mGameMgr.update(mAnimationTicker.getTime());
+        if (BuildConfig.DEBUG) {
+            logFrameMetrics();
         }
-        mGameMgr.update();
         return false;
     }
 
+    /** Periodically log the statistics of the frame phases then start a new measure. */
+    private void logFrameMetrics() {
+        if (--mTicksBeforeMetricsLog > 0) {
+            return;
+        }
+        mTicksBeforeMetricsLog = METRICS_LOG_PERIOD;
+        snapshotFrameMetrics(mMetricsSnapshot);
+        resetFrameMetrics();
+        Log.d(TAG, "Frame metrics\n" + mMetricsSnapshot);
+    }
+
     @Override
     protected void processEvent(UserEvent event) {
 
@@ -45,15 +105,53 @@ public class TowerDefenseThread extends DrawingThread {
             // Toggle pause
             if (mGameMgr.isPaused()) {
                 mGameMgr.resume();
+                getClock().resume();
+                setGamePaused(false);
             } else {
                 mGameMgr.pause();
+                getClock().pause();
+                // Nothing changes until the next user event.
+                setGamePaused(true);
             }
 
         }
     }
 
     @Override
-    protected void doDraw(Canvas canvas) {
-        mGameMgr.draw(canvas);
+    public void onFrameRateChanged(int previousRate, int newRate, long frameCost) {
+        Log.d(TAG, "Frame rate " + previousRate + " -> " + newRate + " fps (frame cost " + frameCost / 1000 + " us)");
+    }
+
+    @Override
+    protected void onLoopStopped() {
+        mGameMgr.release();
+        if (BuildConfig.DEBUG) {
+            Log.d(TAG, BitmapCache.getInstance().toString());
+        }
+        TowerFactory.releaseAnimations();
+        EnemyFactory.releaseAnimations();
+        BitmapCache.getInstance().clear();
+    }
+
+    @Override
+    protected GameSnapshot createSnapshot() {
+        return new GameSnapshot();
+    }
+
+    @Override
+    protected void writeSnapshot(GameSnapshot snapshot) {
+        mGameMgr.writeSnapshot(snapshot);
+    }
+
+    @Override
+    protected void onPrepareFrame(GameSnapshot snapshot, float interpolation) {
+        if (mGameMgr.getDirtyRegion(snapshot, interpolation, mDirtyRect)) {
+            invalidate(mDirtyRect);
+        }
+    }
+
+    @Override
+    protected void doDraw(Canvas canvas, GameSnapshot snapshot, float interpolation) {
+        mGameMgr.draw(canvas, snapshot, interpolation);
     }
 }
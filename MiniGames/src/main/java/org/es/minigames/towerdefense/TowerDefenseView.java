@@ -31,9 +31,11 @@ public class TowerDefenseView extends DrawingView {
         switch (action) {
 
             case MotionEvent.ACTION_DOWN:
-                mThread.addUserEvent(new UserEvent(UserEvent.ACTION_DOWN, event.getY(), event.getY()));
+                mThread.addUserEvent(UserEvent.ACTION_DOWN, event.getY(), event.getY());
+                break;
 
             case MotionEvent.ACTION_MOVE:
+                mThread.addMoveEvent(event);
                 break;
         }
         return super.dispatchTouchEvent(event);
@@ -1,11 +1,12 @@
 package org.es.minigames.towerdefense.battleground;
 
 import android.content.res.Resources;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
 import android.graphics.Point;
 import android.graphics.PointF;
+import android.graphics.Rect;
 
 import org.es.engine.graphics.drawable.DrawableElement;
 import org.es.engine.graphics.utils.DrawingParam;
@@ -13,7 +14,9 @@ import org.es.minigames.towerdefense.unit.Enemy;
 import org.es.minigames.towerdefense.unit.Tower;
 
 /**
- * Class that represents the battlefield.
+ * Class that represents the battlefield.<br />
+ * The tiles are static: they are rendered once in an offscreen layer, drawn in a single bitmap per frame.
+ * A tile is rendered again in the layer only when it is invalidated.
  *
  * @author Cyril Leroux
  *         Created on 30/01/14.
@@ -29,6 +32,17 @@ public class Battleground implements DrawableElement {
     private final Point[] mSpawnPoints;
     private final Point[] mGoals;
 
+    /** Guards the tiles to render again in the layer. */
+    private final Object mLayerLock = new Object();
+    /** The tiles to render again in the layer. Indexed as the tiles: [row][column]. */
+    private final boolean[][] mInvalidTiles;
+    private boolean mLayerInvalid;
+    /** The tiles rendered at the current size, without offset. Only accessed by the drawing thread. */
+    private Bitmap mLayer;
+    private Canvas mLayerCanvas;
+    /** The drawing parameters of the tiles in the layer. */
+    private final DrawingParam mLayerParam;
+
     public Battleground(int columnCount, int rowCount, Point[] spawnPoints, Point[] goals, Resources resources, DrawingParam drawingParam) {
         mColumnCount = columnCount;
         mRowCount = rowCount;
@@ -37,6 +51,11 @@ public class Battleground implements DrawableElement {
         mGoals = goals;
         mPosition = new PointF(0, 0);
         mDrawingParam = drawingParam;
+
+        mInvalidTiles = new boolean[rowCount][columnCount];
+        mLayerCanvas = new Canvas();
+        mLayerParam = new DrawingParam();
+        invalidateAllTiles();
     }
 
     /**
@@ -60,6 +79,7 @@ public class Battleground implements DrawableElement {
         final float posX = tile.getCenterX() - enemy.getWidth() / 2f;
         final float posY = tile.getCenterY() - enemy.getHeight() / 2f;
         enemy.setPosition(posX, posY);
+        enemy.savePosition();
     }
 
     /** Add a tower to the center of the selected tile. */
@@ -70,14 +90,75 @@ public class Battleground implements DrawableElement {
             return false;
         }
         tile.bindUnit(tower);
+        invalidateTile(columnId, rowId);
         final float posX = tile.getCenterX() - tower.getWidth() / 2f;
         final float posY = tile.getCenterY() - tower.getHeight() / 2f;
         tower.setPosition(posX, posY);
+        tower.savePosition();
         return true;
     }
 
     public Tile getTile(int x, int y) {
-        return mTiles[y][x];
+        synchronized (mLayerLock) {
+            return mTiles[y][x];
+        }
+    }
+
+    /**
+     * Replace a tile by a tile of another type.<br />
+     * Must not be called for a tile bound to a unit.
+     */
+    public void setTileType(int columnId, int rowId, Tile.Type type, Resources resources) {
+        final Tile tile = TileFactory.createTile(columnId, rowId, type, resources);
+        synchronized (mLayerLock) {
+            mTiles[rowId][columnId] = tile;
+            mInvalidTiles[rowId][columnId] = true;
+            mLayerInvalid = true;
+        }
+    }
+
+    /** Render the tile again in the layer before the next draw. */
+    public void invalidateTile(int columnId, int rowId) {
+        synchronized (mLayerLock) {
+            mInvalidTiles[rowId][columnId] = true;
+            mLayerInvalid = true;
+        }
+    }
+
+    private void invalidateAllTiles() {
+        synchronized (mLayerLock) {
+            for (boolean[] row : mInvalidTiles) {
+                for (int x = 0; x < row.length; x++) {
+                    row[x] = true;
+                }
+            }
+            mLayerInvalid = true;
+        }
+    }
+
+    /**
+     * Add the area of the invalid tiles to a region of the screen.
+     *
+     * @param outRect The region in pixels to extend.
+     */
+    public void unionInvalidRegion(Rect outRect) {
+        final float coef = mDrawingParam.coef();
+        final float offsetX = mDrawingParam.offsetX();
+        final float offsetY = mDrawingParam.offsetY();
+        synchronized (mLayerLock) {
+            if (!mLayerInvalid) {
+                return;
+            }
+            for (int y = 0; y < mInvalidTiles.length; y++) {
+                final boolean[] row = mInvalidTiles[y];
+                for (int x = 0; x < row.length; x++) {
+                    if (row[x]) {
+                        outRect.union((int) (x * coef + offsetX), (int) (y * coef + offsetY),
+                                (int) Math.ceil((x + 1) * coef + offsetX), (int) Math.ceil((y + 1) * coef + offsetY));
+                    }
+                }
+            }
+        }
     }
 
     @Override
@@ -86,6 +167,8 @@ public class Battleground implements DrawableElement {
         mDrawingParam.setCoef(minSize);
         float offsetY = (surfaceHeight - getHeight() *  mDrawingParam.coef()) / 2f;
         mDrawingParam.setOffset(0, offsetY);
+        // The layer is resized on the next draw.
+        invalidateAllTiles();
     }
 
     @Override
@@ -93,17 +176,62 @@ public class Battleground implements DrawableElement {
 
         // TODO to delete
         // Draw the background
-        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        paint.setColor(Color.WHITE);
-        paint.setStyle(Paint.Style.FILL_AND_STROKE);
-        paint.setAntiAlias(true);
-        canvas.drawRect(canvas.getClipBounds(), paint);
-
-        for (Tile[] row : mTiles) {
-            for (Tile tile : row) {
-                tile.draw(canvas, param);
+        canvas.drawColor(Color.WHITE);
+
+        updateLayer(param.coef());
+        if (mLayer != null) {
+            canvas.drawBitmap(mLayer, param.offsetX(), param.offsetY(), null);
+        }
+    }
+
+    /**
+     * Render the invalid tiles in the layer.
+     * The layer is created again if the size of the tiles changed.
+     *
+     * @param tileSize The size of a tile on screen in pixels.
+     */
+    private void updateLayer(float tileSize) {
+        final int width = (int) Math.ceil(mColumnCount * tileSize);
+        final int height = (int) Math.ceil(mRowCount * tileSize);
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        if (mLayer == null || mLayer.getWidth() != width || mLayer.getHeight() != height
+                || mLayerParam.coef() != tileSize) {
+            if (mLayer != null) {
+                mLayer.recycle();
+            }
+            mLayer = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            mLayerCanvas.setBitmap(mLayer);
+            mLayerParam.setCoef(tileSize);
+            invalidateAllTiles();
+        }
+
+        synchronized (mLayerLock) {
+            if (!mLayerInvalid) {
+                return;
             }
+            for (int y = 0; y < mInvalidTiles.length; y++) {
+                final boolean[] row = mInvalidTiles[y];
+                for (int x = 0; x < row.length; x++) {
+                    if (row[x]) {
+                        mTiles[y][x].draw(mLayerCanvas, mLayerParam);
+                        row[x] = false;
+                    }
+                }
+            }
+            mLayerInvalid = false;
+        }
+    }
+
+    /** Free the layer. It is created again on the next draw. */
+    public void release() {
+        if (mLayer != null) {
+            mLayer.recycle();
+            mLayer = null;
         }
+        invalidateAllTiles();
     }
 
     @Override
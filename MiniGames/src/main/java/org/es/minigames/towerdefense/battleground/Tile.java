@@ -22,9 +22,13 @@ public class Tile implements DrawableElement {
         GRASS, METAL
     }
 
+    private static final Paint GRID_PAINT = createGridPaint();
+
     private final Bitmap mBackground;
     private final int mPosX;
     private final int mPosY;
+    /** The destination of the tile on the canvas. Updated at each draw. */
+    private final RectF mRectOnScreen = new RectF();
     private Offensive mBoundUnit = null;
 
     private boolean mBuildable;
@@ -52,12 +56,16 @@ public class Tile implements DrawableElement {
         canvas.drawBitmap(mBackground, null, boundingRect, null);
 
         // Draw the grid
+        canvas.drawRect(boundingRect, GRID_PAINT);
+    }
+
+    private static Paint createGridPaint() {
         Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
         paint.setAntiAlias(true);
         paint.setStrokeWidth(0.3f);
         paint.setColor(Color.BLUE);
         paint.setStyle(Paint.Style.STROKE);
-        canvas.drawRect(boundingRect, paint);
+        return paint;
     }
 
     /** @return The rect on screen. */
@@ -68,7 +76,8 @@ public class Tile implements DrawableElement {
         float right = left + param.coef();
         float bottom = top + param.coef();
 
-        return new RectF(left, top, right, bottom);
+        mRectOnScreen.set(left, top, right, bottom);
+        return mRectOnScreen;
     }
 
     //
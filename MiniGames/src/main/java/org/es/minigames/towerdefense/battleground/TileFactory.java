@@ -1,9 +1,7 @@
 package org.es.minigames.towerdefense.battleground;
 
 import android.content.res.Resources;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-
+import org.es.engine.graphics.utils.BitmapCache;
 import org.es.minigames.R;
 
 /**
@@ -14,9 +12,6 @@ import org.es.minigames.R;
  */
 public class TileFactory {
 
-    private static Bitmap mGrass = null;
-    private static Bitmap mMetal = null;
-
     public static Tile createTile(int columnId, int rowId, Tile.Type type, Resources resources) {
 
         switch (type) {
@@ -31,17 +26,11 @@ public class TileFactory {
 
     private static Tile createGrassTile(int columnId, int rowId, Resources  resources) {
 
-        if (mGrass == null) {
-            mGrass = BitmapFactory.decodeResource(resources, R.drawable.tile_grass_004);
-        }
-        return new Tile(columnId, rowId, mGrass);
+        return new Tile(columnId, rowId, BitmapCache.getInstance().get(resources, R.drawable.tile_grass_004));
     }
 
     private static Tile createMetalTile(int columnId, int rowId, Resources  resources) {
 
-        if (mMetal == null) {
-            mMetal = BitmapFactory.decodeResource(resources, R.drawable.tile_metal_001);
-        }
-        return new Tile(columnId, rowId, mMetal);
+        return new Tile(columnId, rowId, BitmapCache.getInstance().get(resources, R.drawable.tile_metal_001));
     }
 }
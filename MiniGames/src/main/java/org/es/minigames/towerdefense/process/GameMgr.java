@@ -9,6 +9,10 @@ import android.graphics.Paint;
 import android.graphics.Point;
 import android.graphics.Rect;
 
+import org.es.engine.graphics.animation.ScaledFrameCache;
+import org.es.engine.graphics.hud.HudLayer;
+import org.es.engine.graphics.hud.HudText;
+import org.es.engine.graphics.sprite.SpriteBatch;
 import org.es.engine.graphics.utils.DrawingParam;
 import org.es.minigames.towerdefense.battleground.Battleground;
 import org.es.minigames.towerdefense.unit.Destructible;
@@ -17,8 +21,8 @@ import org.es.minigames.towerdefense.unit.EnemyFactory;
 import org.es.minigames.towerdefense.unit.Tower;
 import org.es.minigames.towerdefense.unit.TowerFactory;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Cyril Leroux
@@ -26,34 +30,75 @@ import java.util.Set;
  */
 public class GameMgr {
 
+    /** Number of simulation ticks per second. */
+    public static final int TICK_RATE = 20;
+
     private final Context mContext;
     /** The parameters used to draw the elements on the screen. */
     private final DrawingParam mDrawingParam;
     private final Paint mDebugPaint;
+    /** Draws the units of a sprite sheet in a single call. Only used by the drawing thread. */
+    private final SpriteBatch mSpriteBatch;
+    /** The unit animations scaled to the drawing coefficient. Only used by the drawing thread. */
+    private final ScaledFrameCache mScaledFrames;
     private final Battleground mBattleground;
 
     // TODO mDrawable should evolve to a list of towers or static elements (handle barricades)
     //private final Set<DrawableElement> mDrawables;
-    private final Set<Enemy> mEnemies;
-    private final Set<Tower> mTowers;
-    private final Set<Destructible> mGarbage;
+    /** Lists rather than sets for the units to be partitioned and updated in a stable order. */
+    private final List<Enemy> mEnemies;
+    private final List<Tower> mTowers;
+
+    /** The threads sharing the update of the units. */
+    private final UpdateWorkers mWorkers;
+    /** The side effects collected by each worker. */
+    private final UpdateBuffer[] mBuffers;
+    private final UpdateWorkers.Task mTowerTask;
+    private final UpdateWorkers.Task mEnemyTask;
+    /** The game time of the tick being updated. */
+    private long mUpdateTime;
     private int mSurfaceWidth;
     private int mSurfaceHeight;
 
-    private boolean mPaused;
-    private long mPauseStartTime;
+    private volatile boolean mPaused;
+
+    /** The retained elements of the debug HUD. Only used by the drawing thread. */
+    private final HudLayer mDebugHud;
+    /** The version texts of the debug HUD. Null if the package info is not available. */
+    private final HudText mVersionCodeText;
+    private final HudText mVersionNameText;
+    /** True if the surface size changed since the debug HUD was laid out. The layout is done by the drawing thread. */
+    private volatile boolean mHudLayoutInvalid;
 
     public GameMgr(Context context) {
         mContext = context;
         mDrawingParam = new DrawingParam();
         mPaused = false;
-        mPauseStartTime = 0;
 
         mDebugPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         mDebugPaint.setAntiAlias(true);
         mDebugPaint.setStrokeWidth(1f);
         mDebugPaint.setStyle(Paint.Style.FILL);
         mDebugPaint.setTextSize(20f);
+        mSpriteBatch = new SpriteBatch();
+        mScaledFrames = new ScaledFrameCache();
+
+        mDebugHud = new HudLayer();
+        HudText versionCodeText = null;
+        HudText versionNameText = null;
+        try {
+            PackageInfo info = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+            final String versionCode = "Version Code: " + String.valueOf(info.versionCode);
+            final String versionName = "Version Name: " + info.versionName;
+            versionCodeText = new HudText(mDebugPaint, versionCode.length());
+            versionCodeText.setText(versionCode);
+            versionNameText = new HudText(mDebugPaint, versionName.length());
+            versionNameText.setText(versionName);
+            mDebugHud.add(versionNameText);
+            mDebugHud.add(versionCodeText);
+        } catch (PackageManager.NameNotFoundException e) { }
+        mVersionCodeText = versionCodeText;
+        mVersionNameText = versionNameText;
 
         mSurfaceWidth = 0;
         mSurfaceHeight = 0;
@@ -64,9 +109,27 @@ public class GameMgr {
                 new Point[]{new Point(0, 3)},
                 new Point[]{new Point(14, 3)},
                 resources, mDrawingParam);
-        mEnemies = new HashSet<>();
-        mTowers = new HashSet<>();
-        mGarbage = new HashSet<>();
+        mEnemies = new ArrayList<>();
+        mTowers = new ArrayList<>();
+
+        // The loop thread is one of the workers. Leave a core for the rendering.
+        mWorkers = new UpdateWorkers(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        mBuffers = new UpdateBuffer[mWorkers.getWorkerCount()];
+        for (int i = 0; i < mBuffers.length; i++) {
+            mBuffers[i] = new UpdateBuffer();
+        }
+        mTowerTask = new UpdateWorkers.Task() {
+            @Override
+            public void run(int worker, int from, int to) {
+                updateTowers(mBuffers[worker], from, to);
+            }
+        };
+        mEnemyTask = new UpdateWorkers.Task() {
+            @Override
+            public void run(int worker, int from, int to) {
+                updateEnemies(mBuffers[worker], from, to);
+            }
+        };
 
         Tower tower = TowerFactory.createTower(Tower.Type.BASIC, resources);
         mTowers.add(tower);
@@ -79,59 +142,171 @@ public class GameMgr {
         spawnEnemy();
     }
 
-    public void update() {
+    /**
+     * Update the units in two phases, each one shared by the workers:
+     * <ul>
+     *     <li>The towers focus and shoot while the enemies do not move. Then the damages are applied.</li>
+     *     <li>The enemies move. Then the enemies out of play are replaced.</li>
+     * </ul>
+     * The side effects are applied on the calling thread in the order of the units.
+     * Unlike a serial update, all the towers choose their target before any damage is applied:
+     * several towers may shoot an enemy that an earlier tower kills during the same tick.
+     * The damages to an enemy already out of play are ignored.
+     *
+     * @param time The current game time in milliseconds.
+     */
+    public void update(long time) {
         if (mPaused) {
             return;
         }
         //        mBattleground.update();
+        mUpdateTime = time;
+
+        mWorkers.run(mTowerTask, mTowers.size());
+        for (UpdateBuffer buffer : mBuffers) {
+            final int hitCount = buffer.mTargets.size();
+            for (int i = 0; i < hitCount; i++) {
+                final Destructible target = buffer.mTargets.get(i);
+                // Killed by an earlier tower of the same tick.
+                if (!target.isOutOfPlay()) {
+                    target.receiveDamages(buffer.mAttackers.get(i));
+                }
+            }
+        }
 
-        for (Tower tower : mTowers) {
+        mWorkers.run(mEnemyTask, mEnemies.size());
+        for (UpdateBuffer buffer : mBuffers) {
+            for (Enemy enemy : buffer.mDespawned) {
+                mEnemies.remove(enemy);
+                // spawn a new enemy
+                spawnEnemy();
+            }
+            buffer.clear();
+        }
+    }
+
+    /** Update a chunk of towers. May run on a worker thread. */
+    private void updateTowers(UpdateBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            final Tower tower = mTowers.get(i);
             if (tower.isOutOfPlay()) {
                 continue;
             }
-            tower.update(mEnemies);
+            final Destructible target = tower.update(mEnemies, mUpdateTime);
+            if (target != null) {
+                buffer.addHit(tower, target);
+            }
         }
+    }
 
-        for (Enemy enemy : mEnemies) {
+    /** Update a chunk of enemies. May run on a worker thread. */
+    private void updateEnemies(UpdateBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            final Enemy enemy = mEnemies.get(i);
             if (enemy.isOutOfPlay()) {
-                mGarbage.add(enemy);
-                mEnemies.remove(enemy);
-                // spawn a new enemy
-                spawnEnemy();
+                buffer.mDespawned.add(enemy);
                 continue;
             }
             // TODO not always true
-            enemy.update(mBattleground, true);
+            enemy.savePosition();
+            enemy.update(mBattleground, true, mUpdateTime);
         }
     }
 
-    public void draw(Canvas canvas) {
+    /**
+     * Switch between the parallel and the serial update of the units.<br />
+     * The serial mode runs everything on the loop thread. The result is the same.
+     *
+     * @param parallel True to share the update between the workers.
+     */
+    public void setParallelUpdate(boolean parallel) {
+        mWorkers.setParallel(parallel);
+    }
 
-        // Draw background
-        mBattleground.draw(canvas, mDrawingParam);
+    /** Stop the worker threads and free the drawing caches. The game can no longer be updated. */
+    public void release() {
+        mWorkers.shutdown();
+        mBattleground.release();
+        mSpriteBatch.clear();
+        mScaledFrames.release();
+        mDebugHud.release();
+    }
 
-        // Draw the elements
+    /**
+     * Copy the state of the units needed to draw the game.<br />
+     * Called on the simulation thread after the updates.
+     *
+     * @param snapshot The snapshot to overwrite.
+     */
+    public void writeSnapshot(GameSnapshot snapshot) {
+        snapshot.clear();
         // It is important to draw towers first if there are flying enemies.
         for (Tower tower : mTowers) {
-            tower.draw(canvas, mDrawingParam);
+            tower.writeSnapshot(snapshot.addUnit());
         }
         for (Enemy enemy : mEnemies) {
-            enemy.draw(canvas, mDrawingParam);
+            enemy.writeSnapshot(snapshot.addUnit());
+        }
+    }
+
+    /**
+     * Draw the game from a snapshot.<br />
+     * May be called on a render thread: the units must not be read.
+     *
+     * @param canvas The canvas on which to draw.
+     * @param snapshot The state of the units to draw.
+     * @param interpolation Ratio between 0 (previous tick) and 1 (last tick) used to draw the moving units.
+     */
+    public void draw(Canvas canvas, GameSnapshot snapshot, float interpolation) {
+
+        // Draw background
+        mBattleground.draw(canvas, mDrawingParam);
+
+        // Draw the elements, one call per sprite sheet.
+        mSpriteBatch.begin(canvas);
+        final int unitCount = snapshot.getUnitCount();
+        for (int i = 0; i < unitCount; i++) {
+            snapshot.getUnit(i).draw(mSpriteBatch, mScaledFrames, mDrawingParam, interpolation);
+        }
+        mSpriteBatch.end();
+        if (mScaledFrames.hasRetired()) {
+            // The drawing coefficient changed: forget the batches of the previous scaled sheets before recycling them.
+            mSpriteBatch.clear();
+            mScaledFrames.recycleRetired();
         }
 
         // Draw animations (such as missiles).
         // TODO Draw the animations
 
         // Draw the main HUD
-        drawHUD(canvas, mDrawingParam);
+        drawHUD(canvas, snapshot, interpolation, mDrawingParam);
+    }
+
+    /**
+     * Get the area of the screen where the units of a snapshot are drawn.<br />
+     * Everything else is static: the battleground and the range of the towers are redrawn only when they overlap
+     * with this area, or when tiles of the battleground changed.
+     *
+     * @param snapshot The state of the units to draw.
+     * @param interpolation Ratio between 0 (previous tick) and 1 (last tick) used to draw the moving units.
+     * @param outRect The union of the areas in pixels.
+     * @return False if there is nothing to redraw.
+     */
+    public boolean getDirtyRegion(GameSnapshot snapshot, float interpolation, Rect outRect) {
+        outRect.setEmpty();
+        final int unitCount = snapshot.getUnitCount();
+        for (int i = 0; i < unitCount; i++) {
+            snapshot.getUnit(i).unionDirtyRegion(outRect, mDrawingParam, interpolation, mDebugPaint);
+        }
+        mBattleground.unionInvalidRegion(outRect);
+        return !outRect.isEmpty();
     }
 
     /**
-     * Stop
+     * Stop the updates.<br />
+     * The game clock must be paused by the caller for the pause not to be seen as elapsed time.
      */
     public void pause() {
-        if (mPaused) { return ; }
-        mPauseStartTime = System.nanoTime();
         mPaused = true;
     }
 
@@ -149,17 +324,12 @@ public class GameMgr {
      * <li>Draw main HUD</li>
      * </ul>
      */
-    protected void drawHUD(Canvas canvas, DrawingParam param) {
+    protected void drawHUD(Canvas canvas, GameSnapshot snapshot, float interpolation, DrawingParam param) {
 
         // Draw the elements
-        // It is important to draw towers first if there are flying enemies.
-        for (Tower tower : mTowers) {
-            tower.drawHUD(canvas, param);
-            tower.drawDebugHUD(canvas, param, mDebugPaint);
-        }
-        for (Enemy enemy : mEnemies) {
-            enemy.drawHUD(canvas, param);
-            enemy.drawDebugHUD(canvas, param, mDebugPaint);
+        final int unitCount = snapshot.getUnitCount();
+        for (int i = 0; i < unitCount; i++) {
+            snapshot.getUnit(i).drawDebugHUD(canvas, param, interpolation, mDebugPaint);
         }
 
         drawMainHUD(canvas);
@@ -181,37 +351,13 @@ public class GameMgr {
      */
     protected void drawMainHUDDebug(Canvas canvas) {
 
-        // Draw app version
-        try {
-            PackageInfo info = mContext.getPackageManager().getPackageInfo(mContext.getPackageName(), 0);
-
-            final String versionCode = "Version Code: " + String.valueOf(info.versionCode);
-            final String versionName = "Version Name: " + info.versionName;
-            Rect textBoundsCode = new Rect();
-            mDebugPaint.getTextBounds(versionCode, 0, versionCode.length(), textBoundsCode);
-            Rect textBoundsName = new Rect();
-            mDebugPaint.getTextBounds(versionName, 0, versionName.length(), textBoundsName);
-
-            float yCode = mSurfaceHeight - textBoundsCode.height();
-            float yName = yCode - textBoundsName.height();
-
-            canvas.drawText(versionName, 0, yName, mDebugPaint);
-            canvas.drawText(versionCode, 0, yCode, mDebugPaint);
-
-        } catch (PackageManager.NameNotFoundException e) { }
-
-        // Draw
-        for (Destructible destructible : mGarbage) {
-            if (destructible.isDead()) {
-                // TODO Code a ramaining text draw
-                //drawCenteredText("Dead !", canvas, mBattleground.getCenterX(), mBattleground.getCenterY(), mDebugPaint);
-
-            } else if (destructible instanceof Enemy && ((Enemy) destructible).isFinisher()){
-                // TODO Code a ramaining text draw
-                //drawCenteredText("Finnisher !", canvas, mBattleground.getCenterX(), mBattleground.getCenterY(), mDebugPaint);
-            }
+        // Draw app version and the other retained elements
+        if (mHudLayoutInvalid) {
+            layoutDebugHUD();
         }
+        mDebugHud.draw(canvas);
 
+        // TODO Draw the "Dead !" and "Finisher !" messages of the despawned units from the snapshot.
     }
 
     // TODO move to Wave manager
@@ -226,11 +372,23 @@ public class GameMgr {
         mSurfaceWidth = surfaceWidth;
         mSurfaceHeight = surfaceHeight;
         mBattleground.onUpdateSurfaceSize(surfaceWidth, surfaceHeight);
+        // Called on the UI thread: the HUD texts may be drawn at the same time.
+        mHudLayoutInvalid = true;
+    }
+
+    /** Stack the version texts at the bottom of the screen. Called on the drawing thread. */
+    private void layoutDebugHUD() {
+        mHudLayoutInvalid = false;
+        if (mVersionCodeText != null) {
+            final float yCode = mSurfaceHeight - mVersionCodeText.getHeight();
+            final float yName = yCode - mVersionNameText.getHeight();
+            mVersionCodeText.setPosition(0, yCode);
+            mVersionNameText.setPosition(0, yName);
+        }
     }
 
     // TODO move into utils
-    private static void drawCenteredText(String text, Canvas canvas, float centerX, float centerY, Paint paint) {
-        Rect textBounds = new Rect();
+    private static void drawCenteredText(String text, Canvas canvas, float centerX, float centerY, Paint paint, Rect textBounds) {
         paint.getTextBounds(text, 0, text.length(), textBounds);
         float posX = centerX - textBounds.width() / 2f;
         float posY = centerY - textBounds.height() / 2f;
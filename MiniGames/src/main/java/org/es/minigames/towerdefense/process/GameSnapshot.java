@@ -0,0 +1,40 @@
+package org.es.minigames.towerdefense.process;
+
+import org.es.minigames.towerdefense.unit.UnitSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copy of the state of the game needed to draw a frame.<br />
+ * Unit snapshots are pooled: the snapshot only allocates when the number of units grows.
+ *
+ * @author Cyril Leroux
+ *         Created on 05/03/14.
+ */
+public class GameSnapshot {
+
+    /** The unit snapshots in drawing order. Only the first mUnitCount ones are valid. */
+    private final List<UnitSnapshot> mUnits;
+    private int mUnitCount;
+
+    public GameSnapshot() {
+        mUnits = new ArrayList<>();
+        mUnitCount = 0;
+    }
+
+    /** Remove all the units from the snapshot. */
+    void clear() { mUnitCount = 0; }
+
+    /** @return The next unit snapshot to write. Units are drawn in the order they are added. */
+    UnitSnapshot addUnit() {
+        if (mUnitCount == mUnits.size()) {
+            mUnits.add(new UnitSnapshot());
+        }
+        return mUnits.get(mUnitCount++);
+    }
+
+    int getUnitCount() { return mUnitCount; }
+
+    UnitSnapshot getUnit(int index) { return mUnits.get(index); }
+}
@@ -0,0 +1,37 @@
+package org.es.minigames.towerdefense.process;
+
+import org.es.minigames.towerdefense.unit.Destructible;
+import org.es.minigames.towerdefense.unit.Enemy;
+import org.es.minigames.towerdefense.unit.Tower;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Side effects of the units updated by a worker during a tick.<br />
+ * The effects are applied on the loop thread once all the workers are done,
+ * in the order of the workers: the result does not depend on the number of workers.
+ *
+ * @author Cyril Leroux
+ *         Created on 12/03/14.
+ */
+class UpdateBuffer {
+
+    /** The towers which hit a unit, in update order. */
+    final List<Tower> mAttackers = new ArrayList<>();
+    /** The units hit by the attackers at the same index. */
+    final List<Destructible> mTargets = new ArrayList<>();
+    /** The enemies out of play, to be replaced by new ones. */
+    final List<Enemy> mDespawned = new ArrayList<>();
+
+    void addHit(Tower attacker, Destructible target) {
+        mAttackers.add(attacker);
+        mTargets.add(target);
+    }
+
+    void clear() {
+        mAttackers.clear();
+        mTargets.clear();
+        mDespawned.clear();
+    }
+}
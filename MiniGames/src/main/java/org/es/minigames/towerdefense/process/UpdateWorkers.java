@@ -0,0 +1,201 @@
+package org.es.minigames.towerdefense.process;
+
+/**
+ * Fixed pool of threads sharing the update of the units.<br />
+ * The units are partitioned in contiguous chunks, one per worker.
+ * The calling thread processes the last chunk then waits for the other workers.<br />
+ * The workers are woken up and awaited through a single monitor: running a task does not allocate.
+ *
+ * @author Cyril Leroux
+ *         Created on 12/03/14.
+ */
+class UpdateWorkers {
+
+    /** The work done on a chunk of units. */
+    interface Task {
+
+        /**
+         * Process the units of a chunk.
+         *
+         * @param worker The id of the worker, between 0 and the worker count.
+         * @param from The index of the first unit of the chunk.
+         * @param to The index after the last unit of the chunk.
+         */
+        void run(int worker, int from, int to);
+    }
+
+    /** Below this number of units per worker, splitting the update costs more than it saves. */
+    private static final int MIN_CHUNK_SIZE = 8;
+
+    private final Chunk[] mChunks;
+    private volatile boolean mParallel;
+
+    /** Guards the fields below. Notified when a run starts and when the last chunk of a run is done. */
+    private final Object mLock = new Object();
+    /** Incremented at each run for the workers to detect it. */
+    private int mRunId;
+    /** The number of worker threads taking part in the current run. */
+    private int mActiveCount;
+    /** The number of chunks of the current run still being processed by the worker threads. */
+    private int mPendingCount;
+    private boolean mShutdown;
+
+    /** @param workerCount The number of workers, including the calling thread. */
+    UpdateWorkers(int workerCount) {
+        mChunks = new Chunk[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            mChunks[i] = new Chunk();
+        }
+        mParallel = true;
+        mRunId = 0;
+        mActiveCount = 0;
+        mPendingCount = 0;
+        mShutdown = false;
+
+        for (int i = 0; i < workerCount - 1; i++) {
+            Thread thread = new Worker(i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /** @return The maximum number of workers, including the calling thread. */
+    int getWorkerCount() { return mChunks.length; }
+
+    /** @param parallel False to run all the tasks on the calling thread. */
+    void setParallel(boolean parallel) { mParallel = parallel; }
+
+    boolean isParallel() { return mParallel; }
+
+    /**
+     * Run a task on all the units and wait for its completion.
+     *
+     * @param task The task to run.
+     * @param unitCount The number of units to process.
+     */
+    void run(Task task, int unitCount) {
+        final int workerCount = (mChunks.length == 1 || !mParallel) ?
+                1 : Math.max(1, Math.min(mChunks.length, unitCount / MIN_CHUNK_SIZE));
+        if (workerCount == 1) {
+            task.run(0, 0, unitCount);
+            return;
+        }
+
+        synchronized (mLock) {
+            for (int i = 0; i < workerCount - 1; i++) {
+                mChunks[i].set(task, i, unitCount * i / workerCount, unitCount * (i + 1) / workerCount);
+            }
+            mActiveCount = workerCount - 1;
+            mPendingCount = workerCount - 1;
+            mRunId++;
+            mLock.notifyAll();
+        }
+        task.run(workerCount - 1, unitCount * (workerCount - 1) / workerCount, unitCount);
+
+        awaitWorkers();
+        for (int i = 0; i < workerCount - 1; i++) {
+            mChunks[i].rethrow();
+        }
+    }
+
+    /** Stop the worker threads. */
+    void shutdown() {
+        synchronized (mLock) {
+            mShutdown = true;
+            mLock.notifyAll();
+        }
+    }
+
+    /** Wait until the worker threads processed their chunk of the current run. */
+    private void awaitWorkers() {
+        boolean interrupted = false;
+        synchronized (mLock) {
+            while (mPendingCount > 0) {
+                try {
+                    mLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** A worker thread, processing the chunk of its index at each run. */
+    private class Worker extends Thread {
+
+        private final int mIndex;
+
+        Worker(int index) {
+            super("UpdateWorker-" + index);
+            mIndex = index;
+        }
+
+        @Override
+        public void run() {
+            int lastRunId = 0;
+            while (true) {
+                synchronized (mLock) {
+                    try {
+                        while (mRunId == lastRunId && !mShutdown) {
+                            mLock.wait();
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (mShutdown) {
+                        return;
+                    }
+                    lastRunId = mRunId;
+                    if (mIndex >= mActiveCount) {
+                        // Not enough units for this worker in this run.
+                        continue;
+                    }
+                }
+
+                mChunks[mIndex].run();
+
+                synchronized (mLock) {
+                    if (--mPendingCount == 0) {
+                        mLock.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
+    /** A chunk of units processed by a worker thread. Reused at each run. */
+    private static class Chunk {
+
+        private Task mTask;
+        private int mWorker;
+        private int mFrom;
+        private int mTo;
+        private RuntimeException mError;
+
+        void set(Task task, int worker, int from, int to) {
+            mTask = task;
+            mWorker = worker;
+            mFrom = from;
+            mTo = to;
+            mError = null;
+        }
+
+        void run() {
+            try {
+                mTask.run(mWorker, mFrom, mTo);
+            } catch (RuntimeException e) {
+                mError = e;
+            }
+        }
+
+        /** Throw on the calling thread the exception raised by the worker, if any. */
+        void rethrow() {
+            if (mError != null) {
+                throw mError;
+            }
+        }
+    }
+}
@@ -1,11 +1,9 @@
 package org.es.minigames.towerdefense.unit;
 
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
 import android.graphics.PointF;
-import android.graphics.Rect;
 
+import org.es.engine.graphics.animation.AnimationPlayer;
 import org.es.engine.graphics.drawable.DrawableElement;
 import org.es.engine.graphics.sprite.Sprite;
 import org.es.engine.graphics.utils.DrawingParam;
@@ -25,6 +23,8 @@ public class Destructible<AnimationId extends Enum<AnimationId>> implements Draw
     private final Sprite<AnimationId> mSprite;
     /** Position on the battleground. Expressed in tiles. */
     private final PointF mPosition;
+    /** Position on the battleground at the previous simulation tick. Expressed in tiles. */
+    private final PointF mPreviousPosition;
     /** Width of the destructible element. Expressed in tiles. */
     private final float mWidth;
     /** Height of the destructible element. Expressed in tiles. */
@@ -45,6 +45,7 @@ public class Destructible<AnimationId extends Enum<AnimationId>> implements Draw
         mDead = false;
 
         mPosition = new PointF();
+        mPreviousPosition = new PointF();
     }
 
     //
@@ -63,32 +64,6 @@ public class Destructible<AnimationId extends Enum<AnimationId>> implements Draw
         return isDead();
     }
 
-    /** Draw the Head-up display. */
-    public void drawHUD(Canvas canvas, DrawingParam param) { }
-
-    /** Draw the debug Head-up display. */
-    public void drawDebugHUD(Canvas canvas, DrawingParam param, Paint paint) {
-
-        // Save and change paint color.
-        int initialColor = paint.getColor();
-        paint.setColor(Color.RED);
-
-        // Text to display the remaining life of the element.
-        final String hpText = String.valueOf(mHealth) + " HP";
-        // Get text bounds
-        final Rect textBounds = new Rect();
-        paint.getTextBounds(hpText, 0, hpText.length(), textBounds);
-
-        // Draw the text centered above the element.
-        canvas.drawText(hpText,
-                getCenterX() * param.coef() - textBounds.width() / 2f + param.offsetX(),
-                getPosY() * param.coef() - textBounds.height() + param.offsetY(),
-                paint);
-
-        // restore paint color.
-        paint.setColor(initialColor);
-    }
-
     /** @return The centerX position on the grid. */
     public float getCenterX() { return getPosX() + getWidth() / 2f; }
 
@@ -128,17 +103,45 @@ public class Destructible<AnimationId extends Enum<AnimationId>> implements Draw
         mPosition.set(x, y);
     }
 
+    /**
+     * Save the current position as the position of the previous simulation tick.<br />
+     * Must be called before each update of the position and after the element is placed.
+     */
+    public void savePosition() {
+        mPreviousPosition.set(mPosition.x, mPosition.y);
+    }
+
     @Override
     public float getWidth() { return mWidth; }
 
     @Override
     public float getHeight() { return mHeight; }
 
+    /**
+     * Copy the state needed to draw the element.<br />
+     * The previous position is used to interpolate the rendering between two simulation ticks.
+     *
+     * @param snapshot The snapshot to overwrite.
+     */
+    public void writeSnapshot(UnitSnapshot snapshot) {
+        final AnimationPlayer player = mSprite.getAnimationPlayer();
+        snapshot.mAnimation = player.getAnimation();
+        snapshot.mFrameId = player.getCurrentFrameId();
+        snapshot.mPreviousPosition.set(mPreviousPosition.x, mPreviousPosition.y);
+        snapshot.mPosition.set(mPosition.x, mPosition.y);
+        snapshot.mWidth = mWidth;
+        snapshot.mHeight = mHeight;
+        snapshot.mHealth = mHealth;
+        snapshot.mAttackRange = 0;
+        snapshot.mFocused = false;
+    }
+
     //
     // Sprite functions
     //
 
-    protected void updateAnimation() { mSprite.updateAnimationFrame(); }
+    /** @param time The current game time in milliseconds. */
+    protected void updateAnimation(long time) { mSprite.updateAnimationFrame(time); }
 
     /**
      * Set the current animation id.<br />
@@ -1,12 +1,9 @@
 package org.es.minigames.towerdefense.unit;
 
-import android.graphics.Canvas;
-import android.graphics.Paint;
 import android.graphics.PointF;
 
 import org.es.engine.graphics.animation.AnimationCallback;
 import org.es.engine.graphics.sprite.Sprite;
-import org.es.engine.graphics.utils.DrawingParam;
 import org.es.minigames.towerdefense.battleground.Battleground;
 import org.es.minigames.utils.PositionUtils;
 
@@ -38,14 +35,15 @@ public class Enemy extends Offensive<Enemy.AnimationId> implements AnimationCall
         mFinisher = false;
     }
 
-    public void update(Battleground battleground, boolean mustUpdate) {
+    /** @param time The current game time in milliseconds. */
+    public void update(Battleground battleground, boolean mustUpdate, long time) {
         if (mustUpdate) {
             findAPath(battleground);
         }
         // TODO replace distance by speed * elapsed time
         float distanceAvailable = 0.05f;
         moveToNextPoint(distanceAvailable);
-        updateAnimation();
+        updateAnimation(time);
     }
 
     private void findAPath(Battleground battleground) {
@@ -115,16 +113,6 @@ public class Enemy extends Offensive<Enemy.AnimationId> implements AnimationCall
         return isDead() || isFinisher();
     }
 
-    @Override
-    public void drawHUD(Canvas canvas, DrawingParam param) {
-        super.drawHUD(canvas, param);
-    }
-
-    @Override
-    public void drawDebugHUD(Canvas canvas, DrawingParam param, Paint paint) {
-        super.drawDebugHUD(canvas, param, paint);
-    }
-
     @Override
     public void onAnimationStopped() {  }
 }
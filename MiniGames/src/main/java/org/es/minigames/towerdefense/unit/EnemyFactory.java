@@ -30,6 +30,8 @@ public class EnemyFactory {
     private static final int CRAWLING_ATTACK_RANGE = 3;
     private static final int CRAWLING_ATTACK_DELAY = 1000;
 
+    private static EnumMap<Enemy.AnimationId, Animation> sCrawlingAnimations = null;
+
     public static Enemy createEnemy(Enemy.Type type, Resources resources) {
 
         switch (type) {
@@ -40,6 +42,27 @@ public class EnemyFactory {
     }
 
     private static Enemy createCrawlingEnemy(Resources resources) {
+        return createEnemy(
+                new GenericSprite<>(getCrawlingAnimations(resources), Enemy.AnimationId.RIGHT),
+                CRAWLING_WIDTH, CRAWLING_HEIGHT, CRAWLING_WEIGHT,
+                CRAWLING_HEALTH,
+                CRAWLING_DAMAGE,
+                CRAWLING_ATTACK_RANGE, CRAWLING_ATTACK_DELAY);
+    }
+
+    /**
+     * Drops the animations shared by the crawling enemies.<br />
+     * Call it along with {@link org.es.engine.graphics.utils.BitmapCache#clear()} once no enemy is drawn anymore.
+     */
+    public static synchronized void releaseAnimations() {
+        sCrawlingAnimations = null;
+    }
+
+    /** @return The animations of the crawling enemy, created once and shared by all the crawling enemies. */
+    private static synchronized EnumMap<Enemy.AnimationId, Animation> getCrawlingAnimations(Resources resources) {
+        if (sCrawlingAnimations != null) {
+            return sCrawlingAnimations;
+        }
 
         final SpriteSheet spriteSheet = new SpriteSheet(resources, RES_MONSTERS_SS, 12, 8);
         final EnumMap<Enemy.AnimationId, Animation> mAnimations = new EnumMap<>(Enemy.AnimationId.class);
@@ -51,7 +74,7 @@ public class EnemyFactory {
                                 spriteSheet.getRect(0, 1),
                                 spriteSheet.getRect(0, 2),
                                 spriteSheet.getRect(0, 1)
-                        }, 200, true, null));
+                        }, 200, true));
 
         mAnimations.put(Enemy.AnimationId.LEFT,
                 new SpriteSheetAnimation(spriteSheet.getBitmap(),
@@ -60,7 +83,7 @@ public class EnemyFactory {
                                 spriteSheet.getRect(1, 1),
                                 spriteSheet.getRect(1, 2),
                                 spriteSheet.getRect(1, 1)
-                        }, 200, true, null));
+                        }, 200, true));
 
         mAnimations.put(Enemy.AnimationId.RIGHT,
                 new SpriteSheetAnimation(spriteSheet.getBitmap(),
@@ -69,7 +92,7 @@ public class EnemyFactory {
                                 spriteSheet.getRect(2, 1),
                                 spriteSheet.getRect(2, 2),
                                 spriteSheet.getRect(2, 1)
-                        }, 200, true, null));
+                        }, 200, true));
 
         mAnimations.put(Enemy.AnimationId.UP,
                 new SpriteSheetAnimation(
@@ -79,14 +102,10 @@ public class EnemyFactory {
                                 spriteSheet.getRect(3, 1),
                                 spriteSheet.getRect(3, 2),
                                 spriteSheet.getRect(3, 1)
-                        }, 200, true, null));
+                        }, 200, true));
 
-        return createEnemy(
-                new GenericSprite<>(mAnimations, Enemy.AnimationId.RIGHT),
-                CRAWLING_WIDTH, CRAWLING_HEIGHT, CRAWLING_WEIGHT,
-                CRAWLING_HEALTH,
-                CRAWLING_DAMAGE,
-                CRAWLING_ATTACK_RANGE, CRAWLING_ATTACK_DELAY);
+        sCrawlingAnimations = mAnimations;
+        return sCrawlingAnimations;
     }
 
     protected static Enemy createEnemy(Sprite<Enemy.AnimationId> sprite, float width, float height, int weight,
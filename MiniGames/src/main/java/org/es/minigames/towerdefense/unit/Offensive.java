@@ -17,7 +17,7 @@ public abstract class Offensive<AnimationId extends Enum<AnimationId>> extends D
     protected float mAttackRange;
     /** Delay in milliseconds between two attacks. */
     protected long mAttackDelay;
-    /** Timestamp of the last attack in milliseconds. */
+    /** Game time of the last attack in milliseconds. */
     protected long mLastAttack;
 
     /** The rotation angle of the unit in degrees. */
@@ -48,9 +48,9 @@ public abstract class Offensive<AnimationId extends Enum<AnimationId>> extends D
     }
 
     @Override
-    public void updateAnimation() {
+    public void updateAnimation(long time) {
         updateRotationAnimation();
-        super.updateAnimation();
+        super.updateAnimation(time);
     }
 
     /**
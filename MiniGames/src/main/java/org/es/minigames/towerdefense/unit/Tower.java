@@ -1,12 +1,7 @@
 package org.es.minigames.towerdefense.unit;
 
-import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-
 import org.es.engine.graphics.animation.AnimationCallback;
 import org.es.engine.graphics.sprite.Sprite;
-import org.es.engine.graphics.utils.DrawingParam;
 import org.es.minigames.utils.PositionUtils;
 
 import java.util.Collection;
@@ -40,10 +35,19 @@ public class Tower extends Offensive<Tower.AnimationId> implements AnimationCall
         super(sprite, 1f, 1f, weight, health, damage, attackRange, attackDelay);
     }
 
-    public void update(Collection<? extends Destructible> elementsOnScreen) {
+    /**
+     * Update the focus and the animation of the tower.<br />
+     * The other units are only read: the damages are applied by the caller.
+     *
+     * @param elementsOnScreen The elements on screen.
+     * @param time The current game time in milliseconds.
+     * @return The unit hit by the tower or null if the tower did not shoot.
+     */
+    public Destructible update(Collection<? extends Destructible> elementsOnScreen, long time) {
         updateFocus(elementsOnScreen);
-        actOnFocused();
-        updateAnimation();
+        final Destructible target = actOnFocused(time);
+        updateAnimation(time);
+        return target;
     }
 
     /**
@@ -127,21 +131,24 @@ public class Tower extends Offensive<Tower.AnimationId> implements AnimationCall
      *     <li>Turn towards the focused element.</li>
      *     <li>Shot the focused element.</li>
      * </ul>
+     *
+     * @return The element hit or null.
      */
-    private void actOnFocused() {
-        if (mFocused == null) { return; }
+    private Destructible actOnFocused(long time) {
+        if (mFocused == null) { return null; }
         turnTowards(mFocused.getCenterX(), mFocused.getCenterY());
-        shoot(mFocused);
+        return shoot(time) ? mFocused : null;
     }
 
-    private void shoot(Destructible element) {
-        long delay = System.currentTimeMillis() - mLastAttack;
+    /** @return True if the attack delay allows to shoot. */
+    private boolean shoot(long time) {
+        long delay = time - mLastAttack;
 
-        if (delay < mAttackDelay) { return ; }
+        if (delay < mAttackDelay) { return false; }
 
         // Do attack !
-        element.receiveDamages(this);
-        mLastAttack = System.currentTimeMillis();
+        mLastAttack = time;
+        return true;
     }
 
     @Override
@@ -177,44 +184,13 @@ public class Tower extends Offensive<Tower.AnimationId> implements AnimationCall
     }
 
     @Override
-    public void drawHUD(Canvas canvas, DrawingParam param) {
-        super.drawHUD(canvas, param);
-    }
-
-    @Override
-    public void drawDebugHUD(Canvas canvas, DrawingParam param, Paint paint) {
-        super.drawDebugHUD(canvas, param, paint);
-
-        // Save paint color and style.
-        int initialColor = paint.getColor();
-        Paint.Style initialStyle = paint.getStyle();
-
-        paint.setStyle(Paint.Style.STROKE);
-
-        // Change paint color depending on the focus state.
-        if (isFocused()) {
-            paint.setColor(Color.RED);
-
-            // Draw a line from the tower to the focused element.
-            canvas.drawLine(
-                    getCenterX() * param.coef() + param.offsetX(),
-                    getCenterY() * param.coef() + param.offsetY(),
-                    mFocused.getCenterX() * param.coef() + param.offsetX(),
-                    mFocused.getCenterY() * param.coef() + param.offsetY(),
-                    paint);
-        } else {
-            paint.setColor(Color.BLUE);
+    public void writeSnapshot(UnitSnapshot snapshot) {
+        super.writeSnapshot(snapshot);
+        snapshot.mAttackRange = mAttackRange;
+        snapshot.mFocused = isFocused();
+        if (snapshot.mFocused) {
+            snapshot.mFocusCenter.set(mFocused.getCenterX(), mFocused.getCenterY());
         }
-
-        // Draw the range of sight.
-        canvas.drawCircle(
-                getCenterX() * param.coef() + param.offsetX(),
-                getCenterY() * param.coef() + param.offsetY(),
-                mAttackRange * param.coef(), paint);
-
-        // restore paint color and style.
-        paint.setColor(initialColor);
-        paint.setStyle(initialStyle);
     }
 
     @Override
@@ -27,6 +27,8 @@ public class TowerFactory {
     private static final float BASIC_TOWER_ATTACK_RANGE = 3;
     private static final long BASIC_TOWER_ATTACK_DELAY = 1000;
 
+    private static EnumMap<Tower.AnimationId, Animation> sBasicTowerAnimations = null;
+
     public static Tower createTower(Tower.Type type, Resources resources) {
 
         switch (type) {
@@ -37,6 +39,27 @@ public class TowerFactory {
     }
 
     private static Tower createBasicTower(Resources resources) {
+        return createTower(
+                new GenericSprite<>(getBasicTowerAnimations(resources), Tower.AnimationId.DOWN),
+                BASIC_TOWER_WEIGHT,
+                BASIC_TOWER_HEALTH,
+                BASIC_TOWER_DAMAGE,
+                BASIC_TOWER_ATTACK_RANGE, BASIC_TOWER_ATTACK_DELAY);
+    }
+
+    /**
+     * Drops the animations shared by the basic towers.<br />
+     * Call it along with {@link org.es.engine.graphics.utils.BitmapCache#clear()} once no tower is drawn anymore.
+     */
+    public static synchronized void releaseAnimations() {
+        sBasicTowerAnimations = null;
+    }
+
+    /** @return The animations of the basic tower, created once and shared by all the basic towers. */
+    private static synchronized EnumMap<Tower.AnimationId, Animation> getBasicTowerAnimations(Resources resources) {
+        if (sBasicTowerAnimations != null) {
+            return sBasicTowerAnimations;
+        }
 
         final SpriteSheet spriteSheet = new SpriteSheet(resources, RES_BASIC_TOWER_SS, 4, 2);
 
@@ -44,43 +67,38 @@ public class TowerFactory {
 
         mAnimations.put(Tower.AnimationId.DOWN,
                 new SpriteSheetAnimation(spriteSheet.getBitmap(),
-                        new Rect[]{ spriteSheet.getRect(0, 0) }, -1, false, null));
+                        new Rect[]{ spriteSheet.getRect(0, 0) }, -1, false));
 
         mAnimations.put(Tower.AnimationId.DOWN_LEFT,
                 new SpriteSheetAnimation(spriteSheet.getBitmap(),
-                        new Rect[]{ spriteSheet.getRect(0, 1) }, -1, false, null));
+                        new Rect[]{ spriteSheet.getRect(0, 1) }, -1, false));
 
         mAnimations.put(Tower.AnimationId.LEFT,
                 new SpriteSheetAnimation(spriteSheet.getBitmap(),
-                        new Rect[]{ spriteSheet.getRect(0, 2) }, -1, false, null));
+                        new Rect[]{ spriteSheet.getRect(0, 2) }, -1, false));
 
         mAnimations.put(Tower.AnimationId.LEFT_UP,
                 new SpriteSheetAnimation(spriteSheet.getBitmap(),
-                        new Rect[]{ spriteSheet.getRect(0, 3) }, -1, false, null));
+                        new Rect[]{ spriteSheet.getRect(0, 3) }, -1, false));
 
         mAnimations.put(Tower.AnimationId.UP,
                 new SpriteSheetAnimation(spriteSheet.getBitmap(),
-                        new Rect[]{ spriteSheet.getRect(1, 0) }, -1, false, null));
+                        new Rect[]{ spriteSheet.getRect(1, 0) }, -1, false));
 
         mAnimations.put(Tower.AnimationId.UP_RIGHT,
                 new SpriteSheetAnimation(spriteSheet.getBitmap(),
-                        new Rect[]{ spriteSheet.getRect(1, 1) }, -1, false, null));
+                        new Rect[]{ spriteSheet.getRect(1, 1) }, -1, false));
 
         mAnimations.put(Tower.AnimationId.RIGHT,
                 new SpriteSheetAnimation(spriteSheet.getBitmap(),
-                        new Rect[]{ spriteSheet.getRect(1, 2) }, -1, false, null));
+                        new Rect[]{ spriteSheet.getRect(1, 2) }, -1, false));
 
         mAnimations.put(Tower.AnimationId.RIGHT_DOWN,
                 new SpriteSheetAnimation(spriteSheet.getBitmap(),
-                        new Rect[]{ spriteSheet.getRect(1, 3) }, -1, false, null));
+                        new Rect[]{ spriteSheet.getRect(1, 3) }, -1, false));
 
-
-        return createTower(
-                new GenericSprite<>(mAnimations, Tower.AnimationId.DOWN),
-                BASIC_TOWER_WEIGHT,
-                BASIC_TOWER_HEALTH,
-                BASIC_TOWER_DAMAGE,
-                BASIC_TOWER_ATTACK_RANGE, BASIC_TOWER_ATTACK_DELAY);
+        sBasicTowerAnimations = mAnimations;
+        return sBasicTowerAnimations;
     }
 
     private static Tower createTower(Sprite<Tower.AnimationId> sprite, int weight,
@@ -0,0 +1,192 @@
+package org.es.minigames.towerdefense.unit;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PointF;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import org.es.engine.graphics.animation.Animation;
+import org.es.engine.graphics.animation.ScaledFrameCache;
+import org.es.engine.graphics.sprite.SpriteBatch;
+import org.es.engine.graphics.utils.DrawingParam;
+import org.es.engine.graphics.utils.TextBuffer;
+
+/**
+ * Copy of the state of a unit needed to draw it.<br />
+ * Written by the simulation thread (see {@link Destructible#writeSnapshot(UnitSnapshot)}),
+ * then drawn by the render thread without reading the unit.
+ *
+ * @author Cyril Leroux
+ *         Created on 05/03/14.
+ */
+public class UnitSnapshot {
+
+    /** Maximum number of characters of the health points text. Longer texts are truncated. */
+    private static final int HP_TEXT_MAX_LENGTH = 8;
+
+    /** The current animation of the unit. Only its immutable frames are read. */
+    Animation mAnimation;
+    /** The id of the animation frame to draw. */
+    int mFrameId;
+    /** Position at the previous simulation tick. Expressed in tiles. */
+    final PointF mPreviousPosition = new PointF();
+    /** Position at the last simulation tick. Expressed in tiles. */
+    final PointF mPosition = new PointF();
+    /** Expressed in tiles. */
+    float mWidth;
+    /** Expressed in tiles. */
+    float mHeight;
+    int mHealth;
+
+    /** Attack range of the unit. Expressed in tiles. 0 if the range is not displayed. */
+    float mAttackRange;
+    /** True if the unit focuses another unit. */
+    boolean mFocused;
+    /** Center of the focused unit. Expressed in tiles. */
+    final PointF mFocusCenter = new PointF();
+
+    /** The destination of the sprite on the canvas. */
+    private final RectF mBoundingRect = new RectF();
+    /** The health points text, written without allocating when the health changes. Only used by the drawing thread. */
+    private final TextBuffer mHpText = new TextBuffer(HP_TEXT_MAX_LENGTH);
+    /** The bounds of the health points text, measured when the health changes. */
+    private final Rect mTextBounds = new Rect();
+    /** The health written in the health points text. */
+    private int mHpTextHealth = Integer.MIN_VALUE;
+
+    /**
+     * Draw the unit at a position interpolated between the previous and the last simulation tick.<br />
+     * The sprite is added to the batch and drawn with the other units of the same sprite sheet.
+     * The frame is drawn from the pre-scaled animation when it is ready, aligned on the pixels for a 1:1 copy.
+     */
+    public void draw(SpriteBatch batch, ScaledFrameCache scaledFrames, DrawingParam param, float interpolation) {
+
+        final int width = Math.round(mWidth * param.coef());
+        final int height = Math.round(mHeight * param.coef());
+        final float left = Math.round(getPosX(interpolation) * param.coef() + param.offsetX());
+        final float top = Math.round(getPosY(interpolation) * param.coef() + param.offsetY());
+
+        mBoundingRect.set(left, top, left + width, top + height);
+        scaledFrames.get(mAnimation, width, height).drawFrame(batch, mFrameId, mBoundingRect);
+    }
+
+    /**
+     * Add to the dirty region the area of the screen where the unit and its head-up display are drawn.<br />
+     * The range of sight never changes and is not part of the area.
+     *
+     * @param dirty The dirty region to extend, in pixels.
+     * @param param The parameters used to draw the unit.
+     * @param interpolation Ratio between 0 (previous tick) and 1 (last tick) used to draw the unit.
+     * @param paint The paint used to draw the head-up display.
+     */
+    public void unionDirtyRegion(Rect dirty, DrawingParam param, float interpolation, Paint paint) {
+        final float left = getPosX(interpolation) * param.coef() + param.offsetX();
+        final float top = getPosY(interpolation) * param.coef() + param.offsetY();
+        final float right = left + mWidth * param.coef();
+        final float bottom = top + mHeight * param.coef();
+        final float centerX = (left + right) / 2f;
+
+        // The sprite is aligned on the pixels (see draw): its edges may lie up to a pixel past the exact bounds.
+        final int spriteLeft = Math.round(left);
+        final int spriteTop = Math.round(top);
+        dirty.union(spriteLeft, spriteTop,
+                spriteLeft + Math.round(mWidth * param.coef()),
+                spriteTop + Math.round(mHeight * param.coef()));
+
+        // The health points are written above the unit. Estimate their width rather than measuring the text.
+        final float textSize = paint.getTextSize();
+        final float textHalfWidth = Math.max((right - left) / 2f, textSize * HP_TEXT_MAX_LENGTH / 2f);
+        dirty.union(
+                (int) Math.floor(centerX - textHalfWidth),
+                (int) Math.floor(top - textSize * 2f),
+                (int) Math.ceil(centerX + textHalfWidth),
+                (int) Math.ceil(bottom));
+
+        if (mAttackRange > 0 && mFocused) {
+            final float focusX = mFocusCenter.x * param.coef() + param.offsetX();
+            final float focusY = mFocusCenter.y * param.coef() + param.offsetY();
+            final float centerY = (top + bottom) / 2f;
+            dirty.union(
+                    (int) Math.floor(Math.min(centerX, focusX)) - 1,
+                    (int) Math.floor(Math.min(centerY, focusY)) - 1,
+                    (int) Math.ceil(Math.max(centerX, focusX)) + 1,
+                    (int) Math.ceil(Math.max(centerY, focusY)) + 1);
+        }
+    }
+
+    /** Draw the debug Head-up display. */
+    public void drawDebugHUD(Canvas canvas, DrawingParam param, float interpolation, Paint paint) {
+
+        final float centerX = getPosX(interpolation) + mWidth / 2f;
+        final float centerY = getPosY(interpolation) + mHeight / 2f;
+
+        // Save and change paint color.
+        int initialColor = paint.getColor();
+        paint.setColor(Color.RED);
+
+        // Text to display the remaining life of the element. Only written and measured when the health changes.
+        if (mHealth != mHpTextHealth) {
+            mHpTextHealth = mHealth;
+            mHpText.clear().append(mHealth).append(" HP");
+            mHpText.getTextBounds(paint, mTextBounds);
+        }
+
+        // Draw the text centered above the element.
+        mHpText.draw(canvas,
+                centerX * param.coef() - mTextBounds.width() / 2f + param.offsetX(),
+                getPosY(interpolation) * param.coef() - mTextBounds.height() + param.offsetY(),
+                paint);
+
+        // restore paint color.
+        paint.setColor(initialColor);
+
+        if (mAttackRange > 0) {
+            drawRangeDebugHUD(canvas, param, centerX, centerY, paint);
+        }
+    }
+
+    /** Draw the range of sight and the line towards the focused unit. */
+    private void drawRangeDebugHUD(Canvas canvas, DrawingParam param, float centerX, float centerY, Paint paint) {
+
+        // Save paint color and style.
+        int initialColor = paint.getColor();
+        Paint.Style initialStyle = paint.getStyle();
+
+        paint.setStyle(Paint.Style.STROKE);
+
+        // Change paint color depending on the focus state.
+        if (mFocused) {
+            paint.setColor(Color.RED);
+
+            // Draw a line from the tower to the focused element.
+            canvas.drawLine(
+                    centerX * param.coef() + param.offsetX(),
+                    centerY * param.coef() + param.offsetY(),
+                    mFocusCenter.x * param.coef() + param.offsetX(),
+                    mFocusCenter.y * param.coef() + param.offsetY(),
+                    paint);
+        } else {
+            paint.setColor(Color.BLUE);
+        }
+
+        // Draw the range of sight.
+        canvas.drawCircle(
+                centerX * param.coef() + param.offsetX(),
+                centerY * param.coef() + param.offsetY(),
+                mAttackRange * param.coef(), paint);
+
+        // restore paint color and style.
+        paint.setColor(initialColor);
+        paint.setStyle(initialStyle);
+    }
+
+    private float getPosX(float interpolation) {
+        return mPreviousPosition.x + (mPosition.x - mPreviousPosition.x) * interpolation;
+    }
+
+    private float getPosY(float interpolation) {
+        return mPreviousPosition.y + (mPosition.y - mPreviousPosition.y) * interpolation;
+    }
+}